@@ -0,0 +1,51 @@
+package pro.boto.maven.plugin.pom.enforcer.benchmark;
+
+import pro.boto.maven.plugin.pom.enforcer.PomEnforcer;
+import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
+import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.rules.DependencyOrderRule;
+import pro.boto.maven.plugin.pom.enforcer.rules.RuleRegistry;
+import pro.boto.maven.plugin.pom.enforcer.rules.TemplateOrderRule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * End-to-end cost of one POM, from bytes to violations (and rewritten file for apply).
+ */
+@State(Scope.Thread)
+public class EnforcerBenchmark {
+
+    private PomEnforcer enforcer;
+    private File pomFile;
+
+    @Setup
+    public void prepare() throws Exception {
+        RuleRegistry registry = new RuleRegistry(Arrays.asList(new TemplateOrderRule(), new DependencyOrderRule()));
+        enforcer = new PomEnforcer(FormattingConfig.defaultConfig(), registry);
+        pomFile = File.createTempFile("pom-enforcer-benchmark", ".xml");
+    }
+
+    @TearDown
+    public void cleanUp() throws Exception {
+        Files.deleteIfExists(pomFile.toPath());
+    }
+
+    @Benchmark
+    public List<RuleViolation> check(PomInput input) throws Exception {
+        return enforcer.check(input.content);
+    }
+
+    @Benchmark
+    public List<RuleViolation> apply(PomInput input) throws Exception {
+        return enforcer.apply(pomFile, input.content);
+    }
+}
@@ -0,0 +1,31 @@
+package pro.boto.maven.plugin.pom.enforcer.benchmark;
+
+import pro.boto.maven.plugin.pom.enforcer.SyntheticPom;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Synthetic POM shared by all benchmarks, parameterized by size and plugin configuration depth.
+ */
+@State(Scope.Benchmark)
+public class PomInput {
+
+    @Param({"10", "1000", "10000"})
+    public int dependencies;
+
+    @Param({"shallow", "deep"})
+    public String configuration;
+
+    public byte[] content;
+
+    @Setup
+    public void generate() {
+        content = new SyntheticPom()
+                .withDependencies(dependencies)
+                .withPluginDepth("deep".equals(configuration) ? 64 : 1)
+                .toBytes();
+    }
+}
@@ -0,0 +1,78 @@
+package pro.boto.maven.plugin.pom.enforcer.benchmark;
+
+import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.rules.DependencyOrderRule;
+import pro.boto.maven.plugin.pom.enforcer.rules.TemplateOrderRule;
+import pro.boto.maven.plugin.pom.enforcer.serde.PomSerde;
+
+import org.jdom2.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+@State(Scope.Thread)
+public class RuleBenchmark {
+
+    private final TemplateOrderRule templateOrder = new TemplateOrderRule();
+    private final DependencyOrderRule dependencyOrder = new DependencyOrderRule();
+
+    /**
+     * Parsed once per trial: analyze only reads the tree.
+     */
+    @State(Scope.Thread)
+    public static class Parsed {
+
+        Document document;
+
+        @Setup
+        public void parse(PomInput input) throws Exception {
+            document = PomSerde.defaultConfig().deserialize(input.content);
+        }
+    }
+
+    /**
+     * Apply mutates the tree, so every invocation starts from an unsorted copy.
+     */
+    @State(Scope.Thread)
+    public static class Unsorted {
+
+        private Document parsed;
+        Document document;
+
+        @Setup
+        public void parse(PomInput input) throws Exception {
+            parsed = PomSerde.defaultConfig().deserialize(input.content);
+        }
+
+        @Setup(Level.Invocation)
+        public void copy() {
+            document = parsed.clone();
+        }
+    }
+
+    @Benchmark
+    public List<RuleViolation> templateOrderAnalyze(Parsed parsed) {
+        return templateOrder.analyze(parsed.document);
+    }
+
+    @Benchmark
+    public Document templateOrderApply(Unsorted unsorted) {
+        templateOrder.apply(unsorted.document);
+        return unsorted.document;
+    }
+
+    @Benchmark
+    public List<RuleViolation> dependencyOrderAnalyze(Parsed parsed) {
+        return dependencyOrder.analyze(parsed.document);
+    }
+
+    @Benchmark
+    public Document dependencyOrderApply(Unsorted unsorted) {
+        dependencyOrder.apply(unsorted.document);
+        return unsorted.document;
+    }
+}
@@ -0,0 +1,47 @@
+package pro.boto.maven.plugin.pom.enforcer.benchmark;
+
+import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
+import pro.boto.maven.plugin.pom.enforcer.serde.PomSerde;
+
+import org.jdom2.Document;
+import org.jdom2.output.XMLOutputter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+@State(Scope.Thread)
+public class SerdeBenchmark {
+
+    private final PomSerde pomSerde = PomSerde.defaultConfig();
+    // Baseline for serialize: the JDOM outputter it only falls back to for unmodeled content
+    private final XMLOutputter outputter = new XMLOutputter(
+            FormattingConfig.defaultConfig().buildFormat(),
+            FormattingConfig.defaultConfig().buildOutputProcessor());
+    private Document document;
+
+    @Setup
+    public void parse(PomInput input) throws Exception {
+        document = pomSerde.deserialize(input.content);
+    }
+
+    @Benchmark
+    public Document deserialize(PomInput input) throws Exception {
+        return pomSerde.deserialize(input.content);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return pomSerde.serialize(document);
+    }
+
+    @Benchmark
+    public byte[] serializeWithOutputProcessor() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        outputter.output(document, output);
+        return output.toByteArray();
+    }
+}
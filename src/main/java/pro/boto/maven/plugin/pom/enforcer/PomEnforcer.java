@@ -1,17 +1,36 @@
 package pro.boto.maven.plugin.pom.enforcer;
 
 import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
+import pro.boto.maven.plugin.pom.enforcer.format.RewriteMode;
+import pro.boto.maven.plugin.pom.enforcer.metrics.EnforcerMetrics;
+import pro.boto.maven.plugin.pom.enforcer.metrics.FlightEvents;
+import pro.boto.maven.plugin.pom.enforcer.metrics.Phase;
+import pro.boto.maven.plugin.pom.enforcer.metrics.PomParseEvent;
+import pro.boto.maven.plugin.pom.enforcer.metrics.PomSerializeEvent;
+import pro.boto.maven.plugin.pom.enforcer.metrics.PomWriteEvent;
+import pro.boto.maven.plugin.pom.enforcer.metrics.Probe;
 import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.model.ViolationDetail;
 import pro.boto.maven.plugin.pom.enforcer.rules.RuleRegistry;
+import pro.boto.maven.plugin.pom.enforcer.rules.StreamingVerifier;
+import pro.boto.maven.plugin.pom.enforcer.serde.ElementIndex;
+import pro.boto.maven.plugin.pom.enforcer.serde.FormattingIssue;
+import pro.boto.maven.plugin.pom.enforcer.serde.FormattingLint;
+import pro.boto.maven.plugin.pom.enforcer.serde.FormattingMismatch;
 import pro.boto.maven.plugin.pom.enforcer.serde.PomSerde;
+import pro.boto.maven.plugin.pom.enforcer.serde.SerializedPom;
 
 import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.filter.Filters;
 
 import java.io.File;
 import java.nio.file.Files;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
 
 /**
  * Core engine. Coordinates rules and serialization for both check and apply goals.
@@ -20,10 +39,33 @@ public class PomEnforcer {
 
     private final PomSerde pomSerde;
     private final RuleRegistry registry;
+    private final boolean minimalRewrite;
+    private final EnforcerMetrics metrics;
+    private final boolean failFast;
 
     public PomEnforcer(FormattingConfig formattingConfig, RuleRegistry registry) {
+        this(formattingConfig, registry, EnforcerMetrics.disabled());
+    }
+
+    public PomEnforcer(FormattingConfig formattingConfig, RuleRegistry registry, EnforcerMetrics metrics) {
+        this(formattingConfig, registry, metrics, false);
+    }
+
+    /**
+     * With {@code failFast}, check reports only the first violation found: rules stop at their first
+     * violation and later rules are skipped. Apply is unaffected.
+     */
+    public PomEnforcer(
+            FormattingConfig formattingConfig, RuleRegistry registry, EnforcerMetrics metrics, boolean failFast) {
         this.pomSerde = new PomSerde(formattingConfig);
         this.registry = registry;
+        this.minimalRewrite = formattingConfig.rewrite() == RewriteMode.MINIMAL;
+        this.metrics = metrics;
+        this.failFast = failFast;
+    }
+
+    public RuleRegistry getRegistry() {
+        return registry;
     }
 
     /**
@@ -31,42 +73,280 @@ public class PomEnforcer {
      * Returns all rule violations + formatting violations.
      */
     public List<RuleViolation> check(File pomFile) throws Exception {
-        Document doc = pomSerde.deserialize(pomFile);
-        List<RuleViolation> violations = new ArrayList<>(registry.analyzeAll(doc));
+        return check(pomFile, Files.readAllBytes(pomFile.toPath()));
+    }
 
-        // Detect formatting drift by comparing against what a full apply would produce
-        Document clone = doc.clone();
-        registry.applyAll(clone);
-        byte[] currentContent = Files.readAllBytes(pomFile.toPath());
-        byte[] formattedContent = pomSerde.serialize(clone);
+    /**
+     * Check mode over content that was already read, so callers hashing or caching the
+     * file don't pay for a second read.
+     */
+    public List<RuleViolation> check(byte[] currentContent) throws Exception {
+        return check(null, currentContent);
+    }
 
-        if (!Arrays.equals(currentContent, formattedContent) && violations.isEmpty()) {
-            violations.add(new RuleViolation("formatting", "The file has inconsistent indentation or whitespace."));
+    /**
+     * Check mode over content that was already read from {@code pomFile}, which is only
+     * used to label profiling events and may be {@code null}.
+     */
+    public List<RuleViolation> check(File pomFile, byte[] currentContent) throws Exception {
+        return check(pomFile, currentContent, () -> false);
+    }
+
+    /**
+     * Same as {@link #check(File, byte[])}, giving up once {@code stopped} turns true. It is
+     * checked between phases (after verify, after parse, between fail-fast rules and before the
+     * formatting comparison), so a running check ends at its next phase boundary.
+     *
+     * @throws CancellationException if {@code stopped} turned true before the check completed
+     */
+    public List<RuleViolation> check(File pomFile, byte[] currentContent, BooleanSupplier stopped) throws Exception {
+        // A single forward read decides rule compliance without building or walking the tree
+        Probe probe = metrics.start();
+        StreamingVerifier verifier = registry.newStreamingVerifier();
+        boolean compliant = verifier != null && pomSerde.stream(currentContent, verifier) && !verifier.hasViolation();
+        metrics.record(Phase.VERIFY, probe);
+        stopIfRequested(stopped);
+
+        if (minimalRewrite) {
+            // Formatting is not enforced, so only rule violations count
+            if (compliant) {
+                return new ArrayList<>();
+            }
+            Document doc = parse(pomFile, currentContent);
+            stopIfRequested(stopped);
+            return new ArrayList<>(analyze(pomFile, doc, failFast, stopped));
+        }
+
+        Document doc = null;
+        if (!compliant) {
+            doc = parse(pomFile, currentContent);
+            stopIfRequested(stopped);
+            List<RuleViolation> violations = analyze(pomFile, doc, failFast, stopped);
+            if (!violations.isEmpty()) {
+                // Formatting is only reported for files without rule violations: skip the serialization
+                return new ArrayList<>(violations);
+            }
+        }
+
+        // Rules pass, so a full apply would only reformat: the raw bytes can be linted as they are
+        List<RuleViolation> violations = new ArrayList<>();
+        FormattingLint lint = lint(pomFile, currentContent);
+        if (lint.hasIssues()) {
+            violations.add(formattingViolation(lint.issues()));
+            return violations;
+        }
+        if (lint.isConclusive()) {
+            return violations;
+        }
+
+        // The linter does not model some construct of this file: compare against a full serialization.
+        // The parsed document is private to this call and never written, so it is normalized in place.
+        // Compliant documents skip this: applyAll would leave them unchanged.
+        if (doc == null) {
+            doc = parse(pomFile, currentContent);
+        } else {
+            normalize(pomFile, doc);
+        }
+        stopIfRequested(stopped);
+
+        FormattingMismatch mismatch = compare(pomFile, doc, currentContent);
+
+        if (mismatch != null) {
+            violations.add(new RuleViolation(
+                    "formatting",
+                    "The file has inconsistent indentation or whitespace. First difference at " + mismatch + "."));
         }
 
         return violations;
     }
 
+    private static void stopIfRequested(BooleanSupplier stopped) {
+        if (stopped.getAsBoolean()) {
+            throw new CancellationException("Check stopped");
+        }
+    }
+
+    /**
+     * Names the first differing line and lists the line numbers of the others.
+     */
+    private static RuleViolation formattingViolation(List<FormattingIssue> issues) {
+        StringBuilder message = new StringBuilder("The file has inconsistent indentation or whitespace. ")
+                .append("First difference at ")
+                .append(issues.get(0))
+                .append('.');
+        int listed = Math.min(issues.size() - 1, ViolationDetail.DEFAULT_MAX_ENTRIES);
+        for (int i = 1; i <= listed; i++) {
+            message.append(i == 1 ? " Also at lines " : ", ")
+                    .append(issues.get(i).line());
+        }
+        if (issues.size() - 1 > listed) {
+            message.append(", ... ").append(issues.size() - 1 - listed).append(" more");
+        }
+        if (listed > 0) {
+            message.append('.');
+        }
+        return new RuleViolation("formatting", message.toString());
+    }
+
     /**
      * Apply mode: mutates document, serializes, and writes back to disk.
      * Returns the violations that were found (and fixed).
      */
     public List<RuleViolation> apply(File pomFile) throws Exception {
-        Document doc = pomSerde.deserialize(pomFile);
-        List<RuleViolation> violations = new ArrayList<>(registry.analyzeAll(doc));
+        return apply(pomFile, Files.readAllBytes(pomFile.toPath()));
+    }
 
-        registry.applyAll(doc);
+    /**
+     * Apply mode over content that was already read from {@code pomFile}.
+     */
+    public List<RuleViolation> apply(File pomFile, byte[] currentContent) throws Exception {
+        Document doc = parse(pomFile, currentContent);
+        List<RuleViolation> violations = new ArrayList<>(analyze(pomFile, doc, false, () -> false));
 
-        byte[] currentContent = Files.readAllBytes(pomFile.toPath());
-        byte[] formattedContent = pomSerde.serialize(doc);
+        if (minimalRewrite) {
+            return applyMinimal(pomFile, currentContent, doc, violations);
+        }
 
-        if (!Arrays.equals(currentContent, formattedContent)) {
+        normalize(pomFile, doc);
+
+        SerializedPom formattedContent = serialize(pomFile, doc, currentContent.length);
+
+        if (!formattedContent.contentEquals(currentContent)) {
             if (violations.isEmpty()) {
                 violations.add(new RuleViolation("formatting", "The file has inconsistent indentation or whitespace."));
             }
-            Files.write(pomFile.toPath(), formattedContent);
+            write(pomFile, formattedContent);
+        }
+
+        return violations;
+    }
+
+    /**
+     * Moves only the elements that rules reorder, keeping every other byte of the file.
+     * Falls back to full serialization when the source cannot be patched safely.
+     */
+    private List<RuleViolation> applyMinimal(
+            File pomFile, byte[] currentContent, Document doc, List<RuleViolation> violations) throws Exception {
+        if (violations.isEmpty()) {
+            return violations;
+        }
+
+        ElementIndex index = pomSerde.index(doc);
+        normalize(pomFile, doc);
+
+        byte[] patchedContent = patch(pomFile, currentContent, doc, index);
+
+        write(pomFile, patchedContent);
+        return violations;
+    }
+
+    // ---- MEASURED STEPS ----
+    // Each step feeds the reactor metrics and emits a JFR event; both cost a branch when off.
+    // pomFile only labels the events and is null for content checked without a file.
+
+    private Document parse(File pomFile, byte[] content) throws Exception {
+        PomParseEvent event = FlightEvents.parse();
+        Probe probe = metrics.start();
+        Document doc = pomSerde.deserialize(content);
+        metrics.record(Phase.PARSE, probe);
+        if (event != null) {
+            event.commit(pathOf(pomFile), content.length, () -> countElements(doc));
         }
+        return doc;
+    }
 
+    private List<RuleViolation> analyze(File pomFile, Document doc, boolean firstOnly, BooleanSupplier stopped) {
+        Probe probe = metrics.start();
+        String path = pathOf(pomFile);
+        List<RuleViolation> violations = firstOnly
+                ? registry.analyzeFirst(doc, path, metrics, stopped)
+                : registry.analyzeAll(doc, path, metrics);
+        metrics.record(Phase.ANALYZE, probe);
         return violations;
     }
+
+    private void normalize(File pomFile, Document doc) {
+        Probe probe = metrics.start();
+        registry.applyAll(doc, pathOf(pomFile), metrics);
+        metrics.record(Phase.APPLY, probe);
+    }
+
+    private SerializedPom serialize(File pomFile, Document doc, int expectedLength) {
+        PomSerializeEvent event = FlightEvents.serialize();
+        Probe probe = metrics.start();
+        SerializedPom content = pomSerde.serialize(doc, expectedLength);
+        metrics.record(Phase.SERIALIZE, probe);
+        if (event != null) {
+            event.commit(pathOf(pomFile), Phase.SERIALIZE, content.length());
+        }
+        return content;
+    }
+
+    private byte[] patch(File pomFile, byte[] currentContent, Document doc, ElementIndex index) {
+        PomSerializeEvent event = FlightEvents.serialize();
+        Probe probe = metrics.start();
+        byte[] content = pomSerde.patch(currentContent, doc, index);
+        if (content == null) {
+            content = pomSerde.serialize(doc, currentContent.length).toByteArray();
+        }
+        metrics.record(Phase.SERIALIZE, probe);
+        if (event != null) {
+            event.commit(pathOf(pomFile), Phase.SERIALIZE, content.length);
+        }
+        return content;
+    }
+
+    private FormattingLint lint(File pomFile, byte[] currentContent) {
+        PomSerializeEvent event = FlightEvents.serialize();
+        Probe probe = metrics.start();
+        FormattingLint lint = pomSerde.lint(currentContent);
+        metrics.record(Phase.LINT, probe);
+        if (event != null) {
+            event.commit(pathOf(pomFile), Phase.LINT, currentContent.length);
+        }
+        return lint;
+    }
+
+    private FormattingMismatch compare(File pomFile, Document doc, byte[] currentContent) {
+        PomSerializeEvent event = FlightEvents.serialize();
+        Probe probe = metrics.start();
+        FormattingMismatch mismatch = pomSerde.compare(doc, currentContent);
+        metrics.record(Phase.COMPARE, probe);
+        if (event != null) {
+            event.commit(pathOf(pomFile), Phase.COMPARE, mismatch != null ? mismatch.offset() : currentContent.length);
+        }
+        return mismatch;
+    }
+
+    private void write(File pomFile, SerializedPom content) throws Exception {
+        PomWriteEvent event = FlightEvents.write();
+        Probe probe = metrics.start();
+        content.writeTo(pomFile.toPath());
+        metrics.record(Phase.WRITE, probe);
+        if (event != null) {
+            event.commit(pomFile.getPath(), content.length());
+        }
+    }
+
+    private void write(File pomFile, byte[] content) throws Exception {
+        PomWriteEvent event = FlightEvents.write();
+        Probe probe = metrics.start();
+        Files.write(pomFile.toPath(), content);
+        metrics.record(Phase.WRITE, probe);
+        if (event != null) {
+            event.commit(pomFile.getPath(), content.length);
+        }
+    }
+
+    private static String pathOf(File pomFile) {
+        return pomFile != null ? pomFile.getPath() : null;
+    }
+
+    private static int countElements(Document doc) {
+        int count = 0;
+        for (Iterator<Element> it = doc.getDescendants(Filters.element()); it.hasNext(); it.next()) {
+            count++;
+        }
+        return count;
+    }
 }
@@ -0,0 +1,142 @@
+package pro.boto.maven.plugin.pom.enforcer.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent record of POM files that were found clean by a previous run.
+ *
+ * <p>Each entry maps an absolute POM path to the SHA-256 of its content. The whole cache is
+ * bound to a fingerprint of the effective configuration: when the fingerprint stored on disk
+ * differs from the current one, every entry is discarded. Thread-safe for parallel reactor builds.
+ */
+public final class CheckCache {
+
+    public static final String FILE_NAME = "check-cache.properties";
+
+    private static final String FINGERPRINT_KEY = "@fingerprint";
+
+    private final Path cacheFile;
+    private final String fingerprint;
+    private final Map<String, String> cleanEntries;
+    private volatile boolean modified;
+
+    private CheckCache(Path cacheFile, String fingerprint, Map<String, String> cleanEntries) {
+        this.cacheFile = cacheFile;
+        this.fingerprint = fingerprint;
+        this.cleanEntries = cleanEntries;
+    }
+
+    /**
+     * Loads the cache stored in {@code directory}. Missing, unreadable or outdated caches
+     * yield an empty instance.
+     */
+    public static CheckCache load(File directory, String fingerprint) {
+        Objects.requireNonNull(fingerprint, "fingerprint must not be null");
+        Path cacheFile = directory.toPath().resolve(FILE_NAME);
+        Map<String, String> entries = new ConcurrentHashMap<>();
+
+        if (Files.isRegularFile(cacheFile)) {
+            Properties stored = new Properties();
+            try (InputStream in = Files.newInputStream(cacheFile)) {
+                stored.load(in);
+            } catch (IOException e) {
+                stored.clear();
+            }
+            if (fingerprint.equals(stored.getProperty(FINGERPRINT_KEY))) {
+                for (String path : stored.stringPropertyNames()) {
+                    if (!FINGERPRINT_KEY.equals(path)) {
+                        entries.put(path, stored.getProperty(path));
+                    }
+                }
+            }
+        }
+        return new CheckCache(cacheFile, fingerprint, entries);
+    }
+
+    /**
+     * Returns {@code true} if content with the given {@link #hash(byte[]) hash} was found clean last time.
+     */
+    public boolean isClean(File pomFile, String contentHash) {
+        return contentHash.equals(cleanEntries.get(key(pomFile)));
+    }
+
+    /**
+     * Records the outcome of processing content with the given {@link #hash(byte[]) hash}.
+     */
+    public void record(File pomFile, String contentHash, boolean clean) {
+        String key = key(pomFile);
+        if (clean) {
+            if (!contentHash.equals(cleanEntries.put(key, contentHash))) {
+                modified = true;
+            }
+        } else if (cleanEntries.remove(key) != null) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Writes the cache back to disk if anything changed since it was loaded.
+     */
+    public void save() throws IOException {
+        if (!modified && Files.isRegularFile(cacheFile)) {
+            return;
+        }
+        Properties stored = new Properties();
+        stored.putAll(cleanEntries);
+        stored.setProperty(FINGERPRINT_KEY, fingerprint);
+
+        Files.createDirectories(cacheFile.getParent());
+        try (OutputStream out = Files.newOutputStream(cacheFile)) {
+            stored.store(out, "pom-enforcer check cache");
+        }
+        modified = false;
+    }
+
+    /**
+     * Hashes the given configuration descriptions into a single cache fingerprint.
+     */
+    public static String fingerprint(String... parts) {
+        MessageDigest digest = sha256();
+        for (String part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return toHex(digest.digest());
+    }
+
+    public static String hash(byte[] content) {
+        return toHex(sha256().digest(content));
+    }
+
+    private static String key(File pomFile) {
+        return pomFile.getAbsolutePath();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,182 @@
+package pro.boto.maven.plugin.pom.enforcer.cli;
+
+import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
+import pro.boto.maven.plugin.pom.enforcer.format.RewriteMode;
+import pro.boto.maven.plugin.pom.enforcer.format.SchemaLocationPolicy;
+import pro.boto.maven.plugin.pom.enforcer.mojo.RulesConfig;
+
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.input.sax.XMLReaders;
+import org.xml.sax.InputSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+
+/**
+ * Reads the command-line configuration file, which uses the same {@code <formatting>} and
+ * {@code <rules>} blocks as the plugin's {@code <configuration>}, so a block can be copied between
+ * the two unchanged:
+ *
+ * <pre>{@code
+ * <configuration>
+ *     <formatting>
+ *         <indentSize>2</indentSize>
+ *     </formatting>
+ *     <rules>
+ *         <templateOrder/>
+ *     </rules>
+ * </configuration>
+ * }</pre>
+ *
+ * <p>As with the plugin, a present {@code <rules>} block enables only the rules it lists.
+ */
+final class CliConfig {
+
+    private final FormattingConfig formatting;
+    private final RulesConfig rules;
+
+    private CliConfig(FormattingConfig formatting, RulesConfig rules) {
+        this.formatting = formatting;
+        this.rules = rules;
+    }
+
+    static CliConfig defaults() {
+        return new CliConfig(FormattingConfig.defaultConfig(), new RulesConfig());
+    }
+
+    static CliConfig read(File configFile) throws IOException {
+        Document doc;
+        try {
+            doc = newSaxBuilder().build(configFile);
+        } catch (JDOMException e) {
+            throw new IllegalArgumentException("Malformed configuration " + configFile + ": " + e.getMessage(), e);
+        }
+
+        FormattingConfig formatting = FormattingConfig.defaultConfig();
+        RulesConfig rules = new RulesConfig();
+        for (Element block : doc.getRootElement().getChildren()) {
+            switch (block.getName()) {
+                case "formatting":
+                    readFormatting(block, formatting);
+                    break;
+                case "rules":
+                    readRules(block, rules);
+                    break;
+                default:
+                    throw unknown(block);
+            }
+        }
+        return new CliConfig(formatting, rules);
+    }
+
+    /**
+     * Same hardening as the POM parser: external DTDs and entities are never loaded.
+     */
+    private static SAXBuilder newSaxBuilder() {
+        SAXBuilder builder = new SAXBuilder(XMLReaders.NONVALIDATING);
+        builder.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        builder.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        builder.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        builder.setEntityResolver((publicId, systemId) -> new InputSource(new StringReader("")));
+        return builder;
+    }
+
+    FormattingConfig formatting() {
+        return formatting;
+    }
+
+    RulesConfig rules() {
+        return rules;
+    }
+
+    private static void readFormatting(Element block, FormattingConfig formatting) {
+        for (Element param : block.getChildren()) {
+            String value = param.getTextTrim();
+            switch (param.getName()) {
+                case "encoding":
+                    formatting.setEncoding(value);
+                    break;
+                case "indentSize":
+                    formatting.setIndentSize(Integer.parseInt(value));
+                    break;
+                case "keepBlankLines":
+                    formatting.setKeepBlankLines(Boolean.parseBoolean(value));
+                    break;
+                case "lineSeparator":
+                    formatting.setLineSeparator(value);
+                    break;
+                case "schemaLocation":
+                    formatting.setSchemaLocation(SchemaLocationPolicy.valueOf(value.toUpperCase(Locale.ROOT)));
+                    break;
+                case "rewrite":
+                    formatting.setRewrite(RewriteMode.valueOf(value.toUpperCase(Locale.ROOT)));
+                    break;
+                default:
+                    throw unknown(param);
+            }
+        }
+    }
+
+    private static void readRules(Element block, RulesConfig rules) {
+        rules.setTemplateOrder(null);
+        rules.setDependencyOrder(null);
+        for (Element rule : block.getChildren()) {
+            switch (rule.getName()) {
+                case "templateOrder":
+                    rules.setTemplateOrder(readTemplateOrder(rule));
+                    break;
+                case "dependencyOrder":
+                    rules.setDependencyOrder(readDependencyOrder(rule));
+                    break;
+                case "maxDetailEntries":
+                    rules.setMaxDetailEntries(Integer.parseInt(rule.getTextTrim()));
+                    break;
+                default:
+                    throw unknown(rule);
+            }
+        }
+    }
+
+    private static RulesConfig.TemplateOrder readTemplateOrder(Element rule) {
+        RulesConfig.TemplateOrder templateOrder = new RulesConfig.TemplateOrder();
+        for (Element param : rule.getChildren()) {
+            if (!"template".equals(param.getName())) {
+                throw unknown(param);
+            }
+            templateOrder.setTemplate(param.getTextTrim());
+        }
+        return templateOrder;
+    }
+
+    private static RulesConfig.DependencyOrder readDependencyOrder(Element rule) {
+        RulesConfig.DependencyOrder dependencyOrder = new RulesConfig.DependencyOrder();
+        for (Element param : rule.getChildren()) {
+            String value = param.getTextTrim();
+            switch (param.getName()) {
+                case "sortBy":
+                    dependencyOrder.setSortBy(value);
+                    break;
+                case "bomFirst":
+                    dependencyOrder.setBomFirst(Boolean.parseBoolean(value));
+                    break;
+                case "bomPreserveOrder":
+                    dependencyOrder.setBomPreserveOrder(Boolean.parseBoolean(value));
+                    break;
+                default:
+                    throw unknown(param);
+            }
+        }
+        return dependencyOrder;
+    }
+
+    private static IllegalArgumentException unknown(Element element) {
+        Element parent = element.getParentElement();
+        return new IllegalArgumentException(
+                String.format("Unknown parameter <%s> in <%s>", element.getName(), parent.getName()));
+    }
+}
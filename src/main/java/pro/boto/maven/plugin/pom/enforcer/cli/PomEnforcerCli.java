@@ -0,0 +1,109 @@
+package pro.boto.maven.plugin.pom.enforcer.cli;
+
+import pro.boto.maven.plugin.pom.enforcer.PomEnforcer;
+import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.rules.RuleRegistry;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line entry point driving {@link PomEnforcer} without booting Maven, for git hooks
+ * and editors. Packaged as the executable {@code cli} jar.
+ *
+ * <pre>
+ * java -jar pom-enforcer-maven-plugin-cli.jar [--apply] [--config &lt;file&gt;] [pom.xml ...]
+ * </pre>
+ */
+public final class PomEnforcerCli {
+
+    static final int OK = 0;
+    static final int VIOLATIONS = 1;
+    static final int ERROR = 2;
+
+    private static final String USAGE = "Usage: pom-enforcer [--apply] [--config <file>] [pom.xml ...]\n"
+            + "  --apply          fix violations in place instead of only reporting them\n"
+            + "  --config <file>  XML file with <formatting> and <rules> blocks, as in the plugin configuration\n"
+            + "Without files, ./pom.xml is processed. Exits 1 when check finds violations, 2 on errors.";
+
+    private PomEnforcerCli() {}
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs the command line and returns its exit code.
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        boolean apply = false;
+        File configFile = null;
+        List<File> pomFiles = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--apply":
+                    apply = true;
+                    break;
+                case "--config":
+                    if (++i == args.length) {
+                        err.println("Missing file after --config");
+                        err.println(USAGE);
+                        return ERROR;
+                    }
+                    configFile = new File(args[i]);
+                    break;
+                case "-h":
+                case "--help":
+                    out.println(USAGE);
+                    return OK;
+                default:
+                    if (args[i].startsWith("-")) {
+                        err.println("Unknown option " + args[i]);
+                        err.println(USAGE);
+                        return ERROR;
+                    }
+                    pomFiles.add(new File(args[i]));
+            }
+        }
+        if (pomFiles.isEmpty()) {
+            pomFiles.add(new File("pom.xml"));
+        }
+
+        PomEnforcer enforcer;
+        try {
+            CliConfig config = configFile != null ? CliConfig.read(configFile) : CliConfig.defaults();
+            enforcer = new PomEnforcer(
+                    config.formatting(), new RuleRegistry(config.rules().buildRules()));
+        } catch (Exception e) {
+            err.println("Invalid configuration " + configFile + ": " + e.getMessage());
+            return ERROR;
+        }
+
+        int violated = 0;
+        int failed = 0;
+        for (File pomFile : pomFiles) {
+            try {
+                List<RuleViolation> violations = apply ? enforcer.apply(pomFile) : enforcer.check(pomFile);
+                if (!violations.isEmpty()) {
+                    violated++;
+                    if (apply) {
+                        out.println("Applied changes to: " + pomFile);
+                    }
+                    for (RuleViolation v : violations) {
+                        out.println("Violation in " + pomFile + ": " + v);
+                    }
+                }
+            } catch (Exception e) {
+                failed++;
+                err.println("Error processing " + pomFile + ": " + e.getMessage());
+            }
+        }
+
+        if (failed > 0) {
+            return ERROR;
+        }
+        return !apply && violated > 0 ? VIOLATIONS : OK;
+    }
+}
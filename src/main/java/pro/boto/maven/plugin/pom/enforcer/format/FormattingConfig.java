@@ -19,12 +19,14 @@ public class FormattingConfig {
     public static final boolean DEFAULT_KEEP_BLANK_LINES = false;
     public static final String DEFAULT_LINE_SEPARATOR = "\n";
     public static final SchemaLocationPolicy DEFAULT_SCHEMA_LOCATION = SchemaLocationPolicy.INDENTED;
+    public static final RewriteMode DEFAULT_REWRITE = RewriteMode.FULL;
 
     private String encoding = DEFAULT_ENCODING;
     private int indentSize = DEFAULT_INDENT_SIZE;
     private boolean keepBlankLines = DEFAULT_KEEP_BLANK_LINES;
     private String lineSeparator = DEFAULT_LINE_SEPARATOR;
     private SchemaLocationPolicy schemaLocation = DEFAULT_SCHEMA_LOCATION;
+    private RewriteMode rewrite = DEFAULT_REWRITE;
 
     /** No-arg constructor with sensible defaults. Required for Maven injection. */
     public FormattingConfig() {}
@@ -64,6 +66,10 @@ public class FormattingConfig {
         return schemaLocation;
     }
 
+    public RewriteMode rewrite() {
+        return rewrite;
+    }
+
     // ---- Setters (for Maven injection) ----
 
     public void setEncoding(String encoding) {
@@ -86,6 +92,10 @@ public class FormattingConfig {
         this.schemaLocation = schemaLocation;
     }
 
+    public void setRewrite(RewriteMode rewrite) {
+        this.rewrite = rewrite;
+    }
+
     // ---- Builder methods: produce JDOM2 objects ----
 
     /**
@@ -107,6 +117,18 @@ public class FormattingConfig {
         return new PomOutputProcessor(schemaLocation == SchemaLocationPolicy.INDENTED);
     }
 
+    /**
+     * Stable description of every setting that affects serialization, used to invalidate caches.
+     */
+    public String fingerprint() {
+        return "encoding=" + encoding
+                + ";indentSize=" + indentSize
+                + ";keepBlankLines=" + keepBlankLines
+                + ";lineSeparator=" + lineSeparator
+                + ";schemaLocation=" + schemaLocation
+                + ";rewrite=" + rewrite;
+    }
+
     private static String resolveEscapes(String value) {
         if (value == null) {
             return null;
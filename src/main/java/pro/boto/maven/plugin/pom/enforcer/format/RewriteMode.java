@@ -0,0 +1,18 @@
+package pro.boto.maven.plugin.pom.enforcer.format;
+
+/**
+ * Controls how much of a POM the {@code apply} goal rewrites.
+ */
+public enum RewriteMode {
+
+    /**
+     * Re-serializes the whole document, enforcing every formatting setting.
+     */
+    FULL,
+
+    /**
+     * Only moves out-of-order elements by splicing the original bytes. Everything else,
+     * including comments and whitespace, stays byte-identical. Formatting is not enforced.
+     */
+    MINIMAL
+}
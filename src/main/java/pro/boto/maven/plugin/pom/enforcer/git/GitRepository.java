@@ -0,0 +1,182 @@
+package pro.boto.maven.plugin.pom.enforcer.git;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-only view of a local git working tree, queried through the {@code git} command line.
+ *
+ * <p>Only local plumbing commands are run, never anything that reaches a remote. Paths are
+ * returned absolute and resolved against the real path of the working tree root, so callers
+ * should compare them with {@link Path#toRealPath} of their own files.
+ */
+public final class GitRepository {
+
+    private final Path root;
+
+    private GitRepository(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Opens the working tree containing {@code directory}.
+     *
+     * @throws IOException if git is not installed or {@code directory} is not inside a working tree
+     */
+    public static GitRepository open(Path directory) throws IOException {
+        byte[] output = run(directory, null, "rev-parse", "--show-toplevel");
+        String toplevel = new String(output, StandardCharsets.UTF_8).trim();
+        return new GitRepository(Paths.get(toplevel).toRealPath());
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    /**
+     * Files whose working tree content differs from {@code ref}, staged or not, plus untracked
+     * files that are not ignored. Deleted files are not included.
+     *
+     * @throws IOException if {@code ref} does not name a commit; refs starting with {@code -} are
+     *     rejected so they can never be read as git options
+     */
+    public Set<Path> changedSince(String ref) throws IOException {
+        String commit = resolveCommit(ref);
+        Set<Path> changed =
+                paths(run(root, null, "diff", "--name-only", "-z", "--no-renames", "--diff-filter=d", commit, "--"));
+        changed.addAll(paths(run(root, null, "ls-files", "-z", "--others", "--exclude-standard")));
+        return changed;
+    }
+
+    /**
+     * Files whose staged content differs from {@code HEAD}. Deleted files are not included.
+     */
+    public Set<Path> staged() throws IOException {
+        return paths(run(root, null, "diff", "--cached", "--name-only", "-z", "--no-renames", "--diff-filter=d"));
+    }
+
+    /**
+     * Reads the staged content of {@code files} with a single {@code git cat-file --batch}.
+     * Files missing from the index are left out of the result.
+     */
+    public Map<Path, byte[]> stagedContent(Collection<Path> files) throws IOException {
+        List<Path> requested = new ArrayList<>(files);
+        StringBuilder input = new StringBuilder();
+        for (Path file : requested) {
+            input.append(':')
+                    .append(root.relativize(file).toString().replace('\\', '/'))
+                    .append('\n');
+        }
+        byte[] output = run(root, input.toString().getBytes(StandardCharsets.UTF_8), "cat-file", "--batch");
+
+        // Each answer is "<oid> <type> <size>\n<content>\n" or "<object> missing\n", in request order
+        Map<Path, byte[]> content = new HashMap<>();
+        int pos = 0;
+        for (Path file : requested) {
+            int headerEnd = indexOf(output, (byte) '\n', pos);
+            String header = new String(output, pos, headerEnd - pos, StandardCharsets.UTF_8);
+            pos = headerEnd + 1;
+            if (!header.endsWith(" missing")) {
+                int size = Integer.parseInt(header.substring(header.lastIndexOf(' ') + 1));
+                content.put(file, Arrays.copyOfRange(output, pos, pos + size));
+                pos += size + 1;
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Resolves {@code ref} to a commit id, so only a validated object id reaches other commands.
+     */
+    private String resolveCommit(String ref) throws IOException {
+        if (ref.isEmpty() || ref.startsWith("-")) {
+            throw new IOException(String.format("Invalid git ref '%s'", ref));
+        }
+        byte[] output = run(root, null, "rev-parse", "--verify", "--end-of-options", ref + "^{commit}");
+        return new String(output, StandardCharsets.UTF_8).trim();
+    }
+
+    private Set<Path> paths(byte[] nulSeparated) {
+        Set<Path> paths = new LinkedHashSet<>();
+        int start = 0;
+        for (int i = 0; i < nulSeparated.length; i++) {
+            if (nulSeparated[i] == 0) {
+                paths.add(root.resolve(new String(nulSeparated, start, i - start, StandardCharsets.UTF_8)));
+                start = i + 1;
+            }
+        }
+        return paths;
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from) throws IOException {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        throw new IOException("Truncated output from git cat-file");
+    }
+
+    /**
+     * Runs git in {@code directory} and returns its standard output. Input and error streams are
+     * pumped on other threads so large outputs cannot block the process.
+     */
+    private static byte[] run(Path directory, byte[] input, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+
+        Process process;
+        try {
+            process = new ProcessBuilder(command).directory(directory.toFile()).start();
+        } catch (IOException e) {
+            throw new IOException("Could not run git, is it installed and on the PATH? " + e.getMessage(), e);
+        }
+        CompletableFuture<Void> stdin = CompletableFuture.runAsync(() -> {
+            try (OutputStream out = process.getOutputStream()) {
+                if (input != null) {
+                    out.write(input);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        CompletableFuture<byte[]> stderr = CompletableFuture.supplyAsync(() -> readAll(process.getErrorStream()));
+
+        byte[] stdout = readAll(process.getInputStream());
+        try {
+            if (process.waitFor() != 0) {
+                String message = new String(stderr.join(), StandardCharsets.UTF_8).trim();
+                throw new IOException(String.format("git %s failed: %s", String.join(" ", args), message));
+            }
+            stdin.join();
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running git " + String.join(" ", args), e);
+        }
+        return stdout;
+    }
+
+    private static byte[] readAll(InputStream in) {
+        try (InputStream stream = in) {
+            return stream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
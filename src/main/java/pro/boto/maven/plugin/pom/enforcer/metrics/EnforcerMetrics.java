@@ -0,0 +1,204 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reactor-wide timers and allocation counters, per {@link Phase}, per rule and per POM file.
+ *
+ * <p>Allocation is measured with the per-thread counters of HotSpot's {@code ThreadMXBean};
+ * where they are unavailable (other JVMs, virtual threads) only time is recorded and
+ * {@link #isAllocationMeasured()} turns false.
+ * The {@link #disabled()} instance records nothing and costs one branch per call.
+ * Thread-safe for parallel reactor builds.
+ */
+public final class EnforcerMetrics {
+
+    private static final EnforcerMetrics DISABLED = new EnforcerMetrics(false, 0);
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final boolean enabled;
+    private final int slowestLimit;
+    private final Map<Phase, Stat> phases = new EnumMap<>(Phase.class);
+    private final Map<String, Map<Phase, Stat>> rules = new ConcurrentHashMap<>();
+    private final Stat files = new Stat();
+    private final PriorityQueue<FileTiming> slowest = new PriorityQueue<>((a, b) -> Long.compare(a.nanos(), b.nanos()));
+    // Set once a probe starts on a thread without a counter, e.g. a virtual thread
+    private volatile boolean allocationUnmeasured;
+
+    private EnforcerMetrics(boolean enabled, int slowestLimit) {
+        this.enabled = enabled;
+        this.slowestLimit = slowestLimit;
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new Stat());
+        }
+    }
+
+    /**
+     * @param slowestLimit number of slowest POM files to keep
+     */
+    public static EnforcerMetrics create(int slowestLimit) {
+        return new EnforcerMetrics(true, slowestLimit);
+    }
+
+    public static EnforcerMetrics disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ---- RECORDING ----
+
+    public Probe start() {
+        if (!enabled) {
+            return Probe.NONE;
+        }
+        long bytes = threadAllocatedBytes();
+        if (bytes < 0) {
+            allocationUnmeasured = true;
+        }
+        return new Probe(System.nanoTime(), Math.max(bytes, 0));
+    }
+
+    public void record(Phase phase, Probe probe) {
+        if (enabled) {
+            phases.get(phase).add(System.nanoTime() - probe.startNanos, allocatedBytes() - probe.startBytes);
+        }
+    }
+
+    public void recordRule(String rule, Phase phase, Probe probe) {
+        if (enabled) {
+            recordRule(rule, phase, System.nanoTime() - probe.startNanos, allocatedBytes() - probe.startBytes);
+        }
+    }
+
+    /**
+     * Records a rule step measured by the caller, e.g. accumulated over a shared tree walk.
+     */
+    public void recordRule(String rule, Phase phase, long elapsedNanos, long allocatedBytes) {
+        if (enabled) {
+            rules.computeIfAbsent(rule, name -> newPhaseMap()).get(phase).add(elapsedNanos, allocatedBytes);
+        }
+    }
+
+    /**
+     * Records the end-to-end processing of one POM file.
+     */
+    public void recordFile(String path, Probe probe) {
+        if (!enabled) {
+            return;
+        }
+        long elapsed = System.nanoTime() - probe.startNanos;
+        files.add(elapsed, allocatedBytes() - probe.startBytes);
+        synchronized (slowest) {
+            slowest.add(new FileTiming(path, elapsed));
+            if (slowest.size() > slowestLimit) {
+                slowest.poll();
+            }
+        }
+    }
+
+    // ---- READ-ONLY ----
+
+    public Stat phase(Phase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * Rule names in alphabetical order, mapped to their per-phase totals.
+     */
+    public Map<String, Map<Phase, Stat>> rules() {
+        return Collections.unmodifiableMap(new TreeMap<>(rules));
+    }
+
+    public Stat files() {
+        return files;
+    }
+
+    /**
+     * The slowest POM files, slowest first.
+     */
+    public List<FileTiming> slowestFiles() {
+        List<FileTiming> result;
+        synchronized (slowest) {
+            result = new ArrayList<>(slowest);
+        }
+        result.sort((a, b) -> Long.compare(b.nanos(), a.nanos()));
+        return result;
+    }
+
+    /**
+     * Whether every probe so far ran on a thread with an allocation counter.
+     */
+    public boolean isAllocationMeasured() {
+        return THREADS != null && !allocationUnmeasured;
+    }
+
+    // ---- SHARED ----
+
+    /**
+     * Bytes allocated so far by the current thread, or {@code 0} if not measurable.
+     */
+    public static long allocatedBytes() {
+        return Math.max(threadAllocatedBytes(), 0);
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or {@code -1} if not measurable.
+     */
+    private static long threadAllocatedBytes() {
+        return THREADS != null
+                ? THREADS.getThreadAllocatedBytes(Thread.currentThread().getId())
+                : -1;
+    }
+
+    private static Map<Phase, Stat> newPhaseMap() {
+        Map<Phase, Stat> map = new EnumMap<>(Phase.class);
+        map.put(Phase.ANALYZE, new Stat());
+        map.put(Phase.APPLY, new Stat());
+        return map;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Wall time spent on one POM file.
+     */
+    public static final class FileTiming {
+
+        private final String path;
+        private final long nanos;
+
+        FileTiming(String path, long nanos) {
+            this.path = path;
+            this.nanos = nanos;
+        }
+
+        public String path() {
+            return path;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Starts JFR events only once a recording exists in this JVM.
+ *
+ * <p>Loading the first event class sets up the recorder's metadata, about a third of a second of
+ * startup that short runs (the command line, a hook over a few files) should not pay. Each factory
+ * returns a begun event, or {@code null} while nothing has ever been recorded.
+ */
+public final class FlightEvents {
+
+    private FlightEvents() {}
+
+    public static boolean isActive() {
+        return FlightRecorder.isInitialized();
+    }
+
+    public static PomParseEvent parse() {
+        if (!isActive()) {
+            return null;
+        }
+        PomParseEvent event = new PomParseEvent();
+        event.begin();
+        return event;
+    }
+
+    public static RuleEvent rule() {
+        if (!isActive()) {
+            return null;
+        }
+        RuleEvent event = new RuleEvent();
+        event.begin();
+        return event;
+    }
+
+    public static PomSerializeEvent serialize() {
+        if (!isActive()) {
+            return null;
+        }
+        PomSerializeEvent event = new PomSerializeEvent();
+        event.begin();
+        return event;
+    }
+
+    public static PomWriteEvent write() {
+        if (!isActive()) {
+            return null;
+        }
+        PomWriteEvent event = new PomWriteEvent();
+        event.begin();
+        return event;
+    }
+}
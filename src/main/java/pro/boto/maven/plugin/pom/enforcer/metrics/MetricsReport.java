@@ -0,0 +1,134 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+import pro.boto.maven.plugin.pom.enforcer.report.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders {@link EnforcerMetrics} as a log table and as a JSON document.
+ */
+public final class MetricsReport {
+
+    private final EnforcerMetrics metrics;
+
+    public MetricsReport(EnforcerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Summary table, one entry per log line.
+     */
+    public List<String> toLines() {
+        List<String> lines = new ArrayList<>();
+        Stat files = metrics.files();
+        lines.add(format(
+                "pom-enforcer metrics: %d POM file(s), %.1f ms total, %.1f ms average",
+                files.count(),
+                millis(files.nanos()),
+                files.count() == 0 ? 0.0 : millis(files.nanos()) / files.count()));
+
+        lines.add(format("%-16s %8s %12s %12s %12s", "phase", "count", "total ms", "avg us", "alloc MB"));
+        for (Phase phase : Phase.values()) {
+            Stat stat = metrics.phase(phase);
+            if (stat.count() > 0) {
+                lines.add(format(
+                        "%-16s %8d %12.1f %12.1f %12s",
+                        phase.label(),
+                        stat.count(),
+                        millis(stat.nanos()),
+                        stat.nanos() / 1e3 / stat.count(),
+                        megabytes(stat)));
+            }
+        }
+
+        Map<String, Map<Phase, Stat>> rules = metrics.rules();
+        if (!rules.isEmpty()) {
+            lines.add(format("%-24s %12s %12s %12s %12s", "rule", "analyze ms", "analyze MB", "apply ms", "apply MB"));
+            for (Map.Entry<String, Map<Phase, Stat>> rule : rules.entrySet()) {
+                Stat analyze = rule.getValue().get(Phase.ANALYZE);
+                Stat apply = rule.getValue().get(Phase.APPLY);
+                lines.add(format(
+                        "%-24s %12.1f %12s %12.1f %12s",
+                        rule.getKey(),
+                        millis(analyze.nanos()),
+                        megabytes(analyze),
+                        millis(apply.nanos()),
+                        megabytes(apply)));
+            }
+        }
+
+        List<EnforcerMetrics.FileTiming> slowest = metrics.slowestFiles();
+        if (!slowest.isEmpty()) {
+            lines.add("slowest POM files:");
+            for (EnforcerMetrics.FileTiming file : slowest) {
+                lines.add(format("%10.1f ms  %s", millis(file.nanos()), file.path()));
+            }
+        }
+        return lines;
+    }
+
+    public void writeJson(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("{\n  \"allocationMeasured\": " + metrics.isAllocationMeasured() + ",\n");
+            out.write("  \"files\": " + json(metrics.files()) + ",\n");
+
+            out.write("  \"phases\": {");
+            String separator = "\n";
+            for (Phase phase : Phase.values()) {
+                out.write(separator + "    " + Json.quote(phase.label()) + ": " + json(metrics.phase(phase)));
+                separator = ",\n";
+            }
+            out.write("\n  },\n");
+
+            out.write("  \"rules\": {");
+            separator = "\n";
+            for (Map.Entry<String, Map<Phase, Stat>> rule : metrics.rules().entrySet()) {
+                out.write(separator + "    " + Json.quote(rule.getKey()) + ": {"
+                        + "\"analyze\": " + json(rule.getValue().get(Phase.ANALYZE)) + ", "
+                        + "\"apply\": " + json(rule.getValue().get(Phase.APPLY)) + "}");
+                separator = ",\n";
+            }
+            out.write("\n  },\n");
+
+            out.write("  \"slowestFiles\": [");
+            Iterator<EnforcerMetrics.FileTiming> slowest =
+                    metrics.slowestFiles().iterator();
+            separator = "\n";
+            while (slowest.hasNext()) {
+                EnforcerMetrics.FileTiming timing = slowest.next();
+                out.write(separator + "    {\"path\": " + Json.quote(timing.path()) + ", \"nanos\": " + timing.nanos()
+                        + "}");
+                separator = ",\n";
+            }
+            out.write("\n  ]\n}\n");
+        }
+    }
+
+    private String megabytes(Stat stat) {
+        return metrics.isAllocationMeasured() ? format("%.1f", stat.allocatedBytes() / (1024.0 * 1024.0)) : "n/a";
+    }
+
+    private String json(Stat stat) {
+        // null rather than a misleading 0 when some thread had no allocation counter
+        return "{\"count\": " + stat.count() + ", \"nanos\": " + stat.nanos() + ", \"allocatedBytes\": "
+                + (metrics.isAllocationMeasured() ? String.valueOf(stat.allocatedBytes()) : "null") + "}";
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static String format(String pattern, Object... args) {
+        return String.format(Locale.ROOT, pattern, args);
+    }
+}
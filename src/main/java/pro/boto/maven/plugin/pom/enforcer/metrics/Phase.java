@@ -0,0 +1,23 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+import java.util.Locale;
+
+/**
+ * Steps of processing a single POM, in the order they run.
+ */
+public enum Phase {
+    /** Streaming rule verification over the raw bytes. */
+    VERIFY,
+    PARSE,
+    ANALYZE,
+    /** Byte-level formatting check over the raw bytes. */
+    LINT,
+    APPLY,
+    SERIALIZE,
+    COMPARE,
+    WRITE;
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
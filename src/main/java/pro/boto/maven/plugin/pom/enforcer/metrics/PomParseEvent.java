@@ -0,0 +1,45 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.IntSupplier;
+
+/**
+ * JFR event covering the parse of one POM into a JDOM document.
+ */
+@Name("pro.boto.pomenforcer.Parse")
+@Label("POM Parse")
+@Category({"Maven", "POM Enforcer"})
+@Description("Parsing of a POM file into a document tree")
+@StackTrace(false)
+public final class PomParseEvent extends jdk.jfr.Event {
+
+    @Label("POM")
+    String path;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Elements")
+    int elements;
+
+    /**
+     * Commits the event if it is enabled and past its threshold. {@code elements} is only
+     * evaluated in that case.
+     */
+    public void commit(String path, long bytes, IntSupplier elements) {
+        end();
+        if (shouldCommit()) {
+            this.path = path;
+            this.bytes = bytes;
+            this.elements = elements.getAsInt();
+            commit();
+        }
+    }
+}
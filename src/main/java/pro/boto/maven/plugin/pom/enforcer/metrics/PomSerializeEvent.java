@@ -0,0 +1,40 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering the serialization of one POM, its comparison against the file on disk, or the
+ * lint of its raw bytes.
+ */
+@Name("pro.boto.pomenforcer.Serialize")
+@Label("POM Serialize")
+@Category({"Maven", "POM Enforcer"})
+@Description("Serialization of a document tree, streaming comparison with the original bytes, or byte-level lint")
+@StackTrace(false)
+public final class PomSerializeEvent extends jdk.jfr.Event {
+
+    @Label("POM")
+    String path;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    public void commit(String path, Phase phase, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.path = path;
+            this.phase = phase.label();
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
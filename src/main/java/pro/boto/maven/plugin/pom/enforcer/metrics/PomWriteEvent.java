@@ -0,0 +1,35 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering the write of a rewritten POM to disk.
+ */
+@Name("pro.boto.pomenforcer.Write")
+@Label("POM Write")
+@Category({"Maven", "POM Enforcer"})
+@Description("Write of a rewritten POM file")
+@StackTrace(false)
+public final class PomWriteEvent extends jdk.jfr.Event {
+
+    @Label("POM")
+    String path;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    public void commit(String path, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.path = path;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
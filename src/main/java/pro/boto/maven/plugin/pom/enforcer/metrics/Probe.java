@@ -0,0 +1,18 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+/**
+ * Start point of a measurement: wall clock and bytes allocated so far by the current thread.
+ * Obtained from {@link EnforcerMetrics#start()} and handed back when the measured step ends.
+ */
+public final class Probe {
+
+    static final Probe NONE = new Probe(0, 0);
+
+    final long startNanos;
+    final long startBytes;
+
+    Probe(long startNanos, long startBytes) {
+        this.startNanos = startNanos;
+        this.startBytes = startBytes;
+    }
+}
@@ -0,0 +1,42 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering one rule's {@code analyze} or {@code apply} on one POM.
+ */
+@Name("pro.boto.pomenforcer.Rule")
+@Label("POM Rule")
+@Category({"Maven", "POM Enforcer"})
+@Description("Analysis or application of a single rule")
+@StackTrace(false)
+public final class RuleEvent extends jdk.jfr.Event {
+
+    @Label("POM")
+    String path;
+
+    @Label("Rule")
+    String rule;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Violations")
+    @Description("Violations found; always 0 for apply")
+    int violations;
+
+    public void commit(String path, String rule, Phase phase, int violations) {
+        end();
+        if (shouldCommit()) {
+            this.path = path;
+            this.rule = rule;
+            this.phase = phase.label();
+            this.violations = violations;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals for one measured step. Thread-safe.
+ */
+public final class Stat {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    void add(long elapsedNanos, long allocatedBytes) {
+        count.increment();
+        nanos.add(elapsedNanos);
+        bytes.add(allocatedBytes);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long nanos() {
+        return nanos.sum();
+    }
+
+    public long allocatedBytes() {
+        return bytes.sum();
+    }
+}
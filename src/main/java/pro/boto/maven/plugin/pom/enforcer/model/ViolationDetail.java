@@ -1,20 +1,54 @@
 package pro.boto.maven.plugin.pom.enforcer.model;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * Pinpoints a single violation location inside a POM document.
+ *
+ * <p>Order details built with {@link #ofOrder} keep the current entries and the expected order,
+ * and only sort and render them when {@link #expected()} or {@link #actual()} is first called.
+ * Up to {@code maxEntries} entries, both orders are listed in full. Larger sections list only
+ * the entries that must move, outside a longest run already in order, as {@code #position label}:
+ * their target position in {@code expected} and their current one in {@code actual}. At most
+ * {@code maxEntries} moves are listed, followed by the number of remaining ones.
  */
 public final class ViolationDetail {
 
+    public static final int DEFAULT_MAX_ENTRIES = 20;
+
     private final String path;
-    private final String expected;
-    private final String actual;
+    private final Renderer renderer;
+    private volatile String[] rendered;
 
     public ViolationDetail(String path, String expected, String actual) {
+        this(path, null);
+        this.rendered = new String[] {expected, actual};
+    }
+
+    private ViolationDetail(String path, Renderer renderer) {
         this.path = Objects.requireNonNull(path, "path must not be null");
-        this.expected = expected;
-        this.actual = actual;
+        this.renderer = renderer;
+    }
+
+    /**
+     * Detail of entries that are not in the expected order.
+     *
+     * @param current the entries in their current order; must not be modified afterwards
+     * @param order the expected order, applied with a stable sort
+     * @param label renders one entry
+     * @param maxEntries number of entries listed in full, and of moves listed otherwise
+     */
+    public static <T> ViolationDetail ofOrder(
+            String path,
+            List<T> current,
+            Comparator<? super T> order,
+            Function<? super T, String> label,
+            int maxEntries) {
+        return new ViolationDetail(path, new Renderer(current, order, label, maxEntries));
     }
 
     public String path() {
@@ -22,18 +56,31 @@ public final class ViolationDetail {
     }
 
     public String expected() {
-        return expected;
+        return rendered()[0];
     }
 
     public String actual() {
-        return actual;
+        return rendered()[1];
+    }
+
+    /**
+     * Renders both sides together so they list the same positions. Racing threads render equal
+     * strings, so no locking is needed.
+     */
+    private String[] rendered() {
+        String[] result = rendered;
+        if (result == null) {
+            result = renderer.render();
+            rendered = result;
+        }
+        return result;
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("at <").append(path).append(">");
-        if (expected != null) sb.append(" expected=[").append(expected).append(']');
-        if (actual != null) sb.append(" actual=[").append(actual).append(']');
+        if (expected() != null) sb.append(" expected=[").append(expected()).append(']');
+        if (actual() != null) sb.append(" actual=[").append(actual()).append(']');
         return sb.toString();
     }
 
@@ -42,11 +89,117 @@ public final class ViolationDetail {
         if (this == o) return true;
         if (!(o instanceof ViolationDetail)) return false;
         ViolationDetail that = (ViolationDetail) o;
-        return path.equals(that.path) && Objects.equals(expected, that.expected) && Objects.equals(actual, that.actual);
+        return path.equals(that.path)
+                && Objects.equals(expected(), that.expected())
+                && Objects.equals(actual(), that.actual());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(path, expected, actual);
+        return Objects.hash(path, expected(), actual());
+    }
+
+    private static final class Renderer {
+
+        private final List<?> current;
+        private final Comparator<Object> order;
+        private final Function<Object, String> label;
+        private final int maxEntries;
+
+        @SuppressWarnings("unchecked")
+        <T> Renderer(List<T> current, Comparator<? super T> order, Function<? super T, String> label, int maxEntries) {
+            this.current = current;
+            this.order = (Comparator<Object>) order;
+            this.label = (Function<Object, String>) label;
+            this.maxEntries = Math.max(1, maxEntries);
+        }
+
+        String[] render() {
+            int size = current.size();
+            Integer[] byOrder = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                byOrder[i] = i;
+            }
+            // Stable, so entries the order considers equal keep their relative positions
+            Arrays.sort(byOrder, (left, right) -> order.compare(current.get(left), current.get(right)));
+            int[] target = new int[size];
+            for (int position = 0; position < size; position++) {
+                target[byOrder[position]] = position;
+            }
+
+            StringBuilder expected = new StringBuilder();
+            StringBuilder actual = new StringBuilder();
+            if (size <= maxEntries) {
+                for (int i = 0; i < size; i++) {
+                    append(expected, null, current.get(byOrder[i]));
+                    append(actual, null, current.get(i));
+                }
+                return new String[] {expected.toString(), actual.toString()};
+            }
+
+            boolean[] stays = longestIncreasing(target);
+            int shown = 0;
+            int skipped = 0;
+            for (int i = 0; i < size; i++) {
+                if (stays[i]) {
+                    continue;
+                }
+                if (shown == maxEntries) {
+                    skipped++;
+                } else {
+                    append(expected, "#" + (target[i] + 1) + ' ', current.get(i));
+                    append(actual, "#" + (i + 1) + ' ', current.get(i));
+                    shown++;
+                }
+            }
+            if (skipped > 0) {
+                String more = ", ... " + skipped + " more";
+                expected.append(more);
+                actual.append(more);
+            }
+            return new String[] {expected.toString(), actual.toString()};
+        }
+
+        /**
+         * Marks one longest increasing subsequence of {@code values} (patience sorting,
+         * O(n log n)). Those entries are already in relative order; every other entry must move.
+         */
+        private static boolean[] longestIncreasing(int[] values) {
+            int[] tails = new int[values.length];
+            int[] previous = new int[values.length];
+            int length = 0;
+            for (int i = 0; i < values.length; i++) {
+                int low = 0;
+                int high = length;
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    if (values[tails[middle]] < values[i]) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                previous[i] = low > 0 ? tails[low - 1] : -1;
+                tails[low] = i;
+                if (low == length) {
+                    length++;
+                }
+            }
+            boolean[] stays = new boolean[values.length];
+            for (int i = tails[length - 1]; i >= 0; i = previous[i]) {
+                stays[i] = true;
+            }
+            return stays;
+        }
+
+        private void append(StringBuilder sb, String position, Object entry) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            if (position != null) {
+                sb.append(position);
+            }
+            sb.append(label.apply(entry));
+        }
     }
 }
@@ -5,7 +5,7 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 
 @Mojo(name = "apply", defaultPhase = LifecyclePhase.PROCESS_RESOURCES, aggregator = true)
-public class ApplyMojo extends EnforcerMojo {
+public class ApplyMojo extends ReactorMojo {
     @Override
     public void execute() throws MojoExecutionException {
         processProjects(true);
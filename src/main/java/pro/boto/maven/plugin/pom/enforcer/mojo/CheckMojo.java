@@ -5,7 +5,7 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 
 @Mojo(name = "check", defaultPhase = LifecyclePhase.PROCESS_RESOURCES, aggregator = true)
-public class CheckMojo extends EnforcerMojo {
+public class CheckMojo extends ReactorMojo {
     @Override
     public void execute() throws MojoExecutionException {
         processProjects(false);
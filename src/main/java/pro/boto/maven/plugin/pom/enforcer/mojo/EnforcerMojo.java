@@ -2,11 +2,10 @@ package pro.boto.maven.plugin.pom.enforcer.mojo;
 
 import pro.boto.maven.plugin.pom.enforcer.PomEnforcer;
 import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
-import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.metrics.EnforcerMetrics;
 import pro.boto.maven.plugin.pom.enforcer.rules.RuleRegistry;
 
 import org.apache.maven.plugin.AbstractMojo;
-import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
@@ -15,7 +14,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Abstract base for all pom-enforcer goals.
+ * Abstract base for all pom-enforcer goals: the reactor, formatting and rules configuration.
  * Wiring only — no rule logic, no formatting logic.
  */
 public abstract class EnforcerMojo extends AbstractMojo {
@@ -29,39 +28,31 @@ public abstract class EnforcerMojo extends AbstractMojo {
     @Parameter
     protected RulesConfig rules = new RulesConfig();
 
+    /**
+     * Makes {@code check} stop at the first POM file with a violation, reporting only its first
+     * violation. POM files that have not started yet are skipped. Under {@code watch}, each
+     * checked file reports only its first violation.
+     */
+    @Parameter(property = "pom-enforcer.failFast", defaultValue = "false")
+    protected boolean failFast;
+
     protected PomEnforcer buildEnforcer() {
-        RuleRegistry registry = new RuleRegistry(rules.buildRules());
-        return new PomEnforcer(formatting, registry);
+        return buildEnforcer(EnforcerMetrics.disabled());
     }
 
-    protected void processProjects(boolean applyChanges) throws MojoExecutionException {
-        PomEnforcer enforcer = buildEnforcer();
-        List<File> violatedFiles = new ArrayList<>();
+    protected PomEnforcer buildEnforcer(EnforcerMetrics enforcerMetrics) {
+        RuleRegistry registry = new RuleRegistry(rules.buildRules());
+        return new PomEnforcer(formatting, registry, enforcerMetrics, failFast);
+    }
 
+    protected List<File> reactorPomFiles() {
+        List<File> pomFiles = new ArrayList<>();
         for (MavenProject project : reactorProjects) {
             File pomFile = project.getFile();
-            if (pomFile == null || !pomFile.exists()) continue;
-
-            try {
-                List<RuleViolation> violations = applyChanges ? enforcer.apply(pomFile) : enforcer.check(pomFile);
-
-                if (!violations.isEmpty()) {
-                    if (applyChanges) {
-                        getLog().info("Applied changes to: " + pomFile.getName());
-                    }
-                    for (RuleViolation v : violations) {
-                        getLog().error("Violation in " + pomFile.getName() + ": " + v);
-                    }
-                    violatedFiles.add(pomFile);
-                }
-            } catch (Exception e) {
-                throw new MojoExecutionException("Error processing " + pomFile.getName(), e);
+            if (pomFile != null && pomFile.exists()) {
+                pomFiles.add(pomFile);
             }
         }
-
-        if (!applyChanges && !violatedFiles.isEmpty()) {
-            throw new MojoExecutionException(violatedFiles.size() + " POM file(s) have violations. "
-                    + "Run 'mvn pom-enforcer:apply' to fix them.");
-        }
+        return pomFiles;
     }
 }
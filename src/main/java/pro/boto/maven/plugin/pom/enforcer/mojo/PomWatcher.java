@@ -0,0 +1,141 @@
+package pro.boto.maven.plugin.pom.enforcer.mojo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a fixed set of POM files and hands each changed file to a {@link Handler}.
+ *
+ * <p>Directories are registered with a {@link WatchService}; bursts of events (editors often
+ * truncate, write and touch a file) are coalesced and a file is only handed over when its content
+ * differs from the last content seen or written, so rewrites done by the handler don't loop.
+ */
+final class PomWatcher implements AutoCloseable {
+
+    /** Quiet period that ends a burst of events. */
+    private static final long SETTLE_MILLIS = 25;
+
+    interface Handler {
+
+        /**
+         * Processes the new content of {@code pomFile}.
+         *
+         * @return the content now on disk, if the handler rewrote the file, otherwise {@code null}
+         */
+        byte[] changed(File pomFile, byte[] content) throws Exception;
+    }
+
+    private final WatchService watchService;
+    private final Map<Path, File> watched = new HashMap<>();
+    private final Map<Path, byte[]> lastContent = new HashMap<>();
+    private final Handler handler;
+
+    PomWatcher(Iterable<File> pomFiles, Handler handler) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.handler = handler;
+
+        Set<Path> directories = new LinkedHashSet<>();
+        for (File pomFile : pomFiles) {
+            Path path = pomFile.toPath().toAbsolutePath().normalize();
+            watched.put(path, pomFile);
+            lastContent.put(path, Files.readAllBytes(path));
+            directories.add(path.getParent());
+        }
+        for (Path directory : directories) {
+            directory.register(
+                    watchService,
+                    new WatchEvent.Kind<?>[] {StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY
+                    },
+                    highSensitivity());
+        }
+    }
+
+    /**
+     * Blocks, dispatching changes until {@link #close()} is called or the thread is interrupted.
+     * Handler failures are rethrown and end the loop.
+     */
+    void run() throws Exception {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(watchService.take(), changed);
+                WatchKey next;
+                while ((next = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(next, changed);
+                }
+                for (Path path : changed) {
+                    dispatch(path);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // closed from another thread: normal shutdown
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.addAll(watched.keySet());
+            } else {
+                Path path = directory.resolve((Path) event.context());
+                if (watched.containsKey(path)) {
+                    changed.add(path);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private void dispatch(Path path) throws Exception {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(path);
+        } catch (IOException e) {
+            // deleted or being replaced: the next event brings the new file
+            return;
+        }
+        if (content.length == 0 || Arrays.equals(content, lastContent.get(path))) {
+            return;
+        }
+        byte[] written = handler.changed(watched.get(path), content);
+        lastContent.put(path, written != null ? written : content);
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * Polling implementations (macOS) check every few seconds unless asked for high sensitivity,
+     * which is only available as a JDK-specific modifier.
+     */
+    private static WatchEvent.Modifier[] highSensitivity() {
+        try {
+            Class<?> type = Class.forName("com.sun.nio.file.SensitivityWatchEventModifier");
+            for (Object constant : type.getEnumConstants()) {
+                if ("HIGH".equals(((Enum<?>) constant).name())) {
+                    return new WatchEvent.Modifier[] {(WatchEvent.Modifier) constant};
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            // not a HotSpot-based JDK
+        }
+        return new WatchEvent.Modifier[0];
+    }
+}
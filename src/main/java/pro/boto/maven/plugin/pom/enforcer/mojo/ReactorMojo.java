@@ -0,0 +1,337 @@
+package pro.boto.maven.plugin.pom.enforcer.mojo;
+
+import pro.boto.maven.plugin.pom.enforcer.PomEnforcer;
+import pro.boto.maven.plugin.pom.enforcer.cache.CheckCache;
+import pro.boto.maven.plugin.pom.enforcer.git.GitRepository;
+import pro.boto.maven.plugin.pom.enforcer.metrics.EnforcerMetrics;
+import pro.boto.maven.plugin.pom.enforcer.metrics.MetricsReport;
+import pro.boto.maven.plugin.pom.enforcer.metrics.Probe;
+import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.report.ReportFormat;
+import pro.boto.maven.plugin.pom.enforcer.report.ViolationReport;
+import pro.boto.maven.plugin.pom.enforcer.rules.PomRule;
+import pro.boto.maven.plugin.pom.enforcer.rules.RuleRegistry;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Base for the goals that make one pass over the reactor ({@code check} and {@code apply}):
+ * parallelism, the check cache, metrics, the violation report and git-based file selection.
+ */
+public abstract class ReactorMojo extends EnforcerMojo {
+
+    /**
+     * Number of POM files processed concurrently. {@code 1} processes the reactor sequentially,
+     * {@code 0} uses one worker per available processor.
+     */
+    @Parameter(property = "pom-enforcer.parallelism", defaultValue = "1")
+    protected int parallelism = 1;
+
+    /**
+     * Skips POM files whose content was found clean by a previous run with the same configuration.
+     */
+    @Parameter(property = "pom-enforcer.cache", defaultValue = "true")
+    protected boolean cache = true;
+
+    @Parameter(property = "pom-enforcer.cacheDirectory", defaultValue = "${project.build.directory}/pom-enforcer")
+    protected File cacheDirectory;
+
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    protected String pluginVersion;
+
+    /**
+     * Times every processing phase and rule, logging a summary table and writing {@link #metricsFile}.
+     */
+    @Parameter(property = "pom-enforcer.metrics", defaultValue = "false")
+    protected boolean metrics;
+
+    @Parameter(
+            property = "pom-enforcer.metricsFile",
+            defaultValue = "${project.build.directory}/pom-enforcer/metrics.json")
+    protected File metricsFile;
+
+    /**
+     * Number of slowest POM files listed in the metrics summary.
+     */
+    @Parameter(property = "pom-enforcer.metricsSlowest", defaultValue = "10")
+    protected int metricsSlowest = 10;
+
+    /**
+     * Writes every violation to {@link #reportFile} in this format, as each POM finishes.
+     */
+    @Parameter(property = "pom-enforcer.report")
+    protected ReportFormat report;
+
+    /**
+     * Defaults to {@code target/pom-enforcer/violations.jsonl} or {@code .sarif}.
+     */
+    @Parameter(property = "pom-enforcer.reportFile")
+    protected File reportFile;
+
+    @Parameter(defaultValue = "${project.build.directory}", readonly = true)
+    protected File buildDirectory;
+
+    /**
+     * Only processes POM files that differ from this git ref (branch, tag or commit) in the working
+     * tree, or are untracked. Reads the local repository only.
+     */
+    @Parameter(property = "pom-enforcer.changedSince")
+    protected String changedSince;
+
+    /**
+     * Only processes POM files with staged changes. {@code check} verifies the staged content
+     * rather than the working tree, as a pre-commit hook would.
+     */
+    @Parameter(property = "pom-enforcer.stagedOnly", defaultValue = "false")
+    protected boolean stagedOnly;
+
+    protected void processProjects(boolean applyChanges) throws MojoExecutionException {
+        EnforcerMetrics enforcerMetrics = metrics ? EnforcerMetrics.create(metricsSlowest) : EnforcerMetrics.disabled();
+        PomEnforcer enforcer = buildEnforcer(enforcerMetrics);
+        CheckCache checkCache = loadCache();
+        List<File> pomFiles = reactorPomFiles();
+        Map<File, byte[]> stagedContent = new HashMap<>();
+        if (changedSince != null || stagedOnly) {
+            pomFiles = selectChanged(pomFiles, applyChanges ? null : stagedContent);
+        }
+
+        List<File> violatedFiles = new ArrayList<>();
+        boolean stopAtFirst = failFast && !applyChanges;
+        // Set by the first violating POM; tasks that have not started yet skip their file and
+        // running ones give up at their next phase boundary
+        AtomicBoolean stopped = new AtomicBoolean();
+        try (WorkerPool pool = WorkerPool.create(parallelism);
+                ViolationReport violationReport = openReport(enforcer.getRegistry())) {
+            List<Future<List<RuleViolation>>> results = new ArrayList<>(pomFiles.size());
+            for (File pomFile : pomFiles) {
+                results.add(pool.submit(() -> {
+                    if (stopped.get()) {
+                        return null;
+                    }
+                    Probe probe = enforcerMetrics.start();
+                    try {
+                        List<RuleViolation> violations = process(
+                                enforcer, checkCache, pomFile, stagedContent.get(pomFile), applyChanges, stopped);
+                        if (stopAtFirst && !violations.isEmpty()) {
+                            stopped.set(true);
+                        }
+                        return violations;
+                    } catch (CancellationException e) {
+                        return null;
+                    } finally {
+                        enforcerMetrics.recordFile(pomFile.getPath(), probe);
+                    }
+                }));
+            }
+
+            // Results are consumed in reactor order so the report stays deterministic
+            for (int i = 0; i < pomFiles.size(); i++) {
+                File pomFile = pomFiles.get(i);
+                List<RuleViolation> violations = awaitResult(results.get(i), pomFile);
+                if (violations == null) {
+                    // Skipped after another POM failed
+                    continue;
+                }
+                if (violationReport != null) {
+                    violationReport.write(pomFile, violations);
+                }
+
+                if (!violations.isEmpty()) {
+                    if (applyChanges) {
+                        getLog().info("Applied changes to: " + pomFile.getName());
+                    }
+                    for (RuleViolation v : violations) {
+                        getLog().error("Violation in " + pomFile.getName() + ": " + v);
+                    }
+                    violatedFiles.add(pomFile);
+                    if (stopAtFirst) {
+                        stopped.set(true);
+                        cancel(results);
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Could not write violation report: " + e.getMessage(), e);
+        }
+
+        saveCache(checkCache);
+        reportMetrics(enforcerMetrics);
+
+        if (stopAtFirst && !violatedFiles.isEmpty()) {
+            throw new MojoExecutionException("Stopped at the first POM file with violations (failFast): "
+                    + violatedFiles.get(0).getName() + ". Run 'mvn pom-enforcer:apply' to fix them.");
+        }
+        if (!applyChanges && !violatedFiles.isEmpty()) {
+            throw new MojoExecutionException(violatedFiles.size() + " POM file(s) have violations. "
+                    + "Run 'mvn pom-enforcer:apply' to fix them.");
+        }
+    }
+
+    /**
+     * Keeps the POM files changed according to git, in reactor order. In staged mode, fills
+     * {@code stagedContent} (when given) with the index content of each kept file.
+     */
+    private List<File> selectChanged(List<File> pomFiles, Map<File, byte[]> stagedContent)
+            throws MojoExecutionException {
+        Path baseDirectory = reactorBaseDirectory();
+        if (baseDirectory == null) {
+            return pomFiles;
+        }
+        try {
+            GitRepository repository = GitRepository.open(baseDirectory);
+            Set<Path> changed = stagedOnly ? repository.staged() : repository.changedSince(changedSince);
+
+            Map<Path, File> selected = new LinkedHashMap<>();
+            for (File pomFile : pomFiles) {
+                Path path = pomFile.toPath().toRealPath();
+                if (changed.contains(path)) {
+                    selected.put(path, pomFile);
+                }
+            }
+            if (stagedOnly && stagedContent != null) {
+                repository
+                        .stagedContent(selected.keySet())
+                        .forEach((path, content) -> stagedContent.put(selected.get(path), content));
+            }
+
+            getLog().info(String.format(
+                    "Processing %d of %d POM file(s) %s",
+                    selected.size(),
+                    pomFiles.size(),
+                    stagedOnly ? "with staged changes" : "changed since " + changedSince));
+            return new ArrayList<>(selected.values());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Could not list changed POM files: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @throws CancellationException if {@code stopped} was set while the file was being checked
+     */
+    private List<RuleViolation> process(
+            PomEnforcer enforcer,
+            CheckCache checkCache,
+            File pomFile,
+            byte[] stagedContent,
+            boolean applyChanges,
+            AtomicBoolean stopped)
+            throws Exception {
+        byte[] content = stagedContent != null ? stagedContent : Files.readAllBytes(pomFile.toPath());
+        if (checkCache == null) {
+            return applyChanges ? enforcer.apply(pomFile, content) : enforcer.check(pomFile, content, stopped::get);
+        }
+
+        String contentHash = CheckCache.hash(content);
+        if (checkCache.isClean(pomFile, contentHash)) {
+            return Collections.emptyList();
+        }
+
+        List<RuleViolation> violations =
+                applyChanges ? enforcer.apply(pomFile, content) : enforcer.check(pomFile, content, stopped::get);
+        checkCache.record(pomFile, contentHash, violations.isEmpty());
+        return violations;
+    }
+
+    private ViolationReport openReport(RuleRegistry registry) throws MojoExecutionException {
+        if (report == null) {
+            return null;
+        }
+        File file = reportFile != null
+                ? reportFile
+                : new File(buildDirectory, "pom-enforcer/violations." + report.extension());
+        List<String> ruleNames = new ArrayList<>();
+        for (PomRule rule : registry.getRules()) {
+            ruleNames.add(rule.getName());
+        }
+        ruleNames.add("formatting");
+        try {
+            return ViolationReport.open(report, file.toPath(), reactorBaseDirectory(), ruleNames);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Could not create violation report " + file, e);
+        }
+    }
+
+    private Path reactorBaseDirectory() {
+        for (MavenProject project : reactorProjects) {
+            if (project.getFile() != null) {
+                return project.getFile().getAbsoluteFile().getParentFile().toPath();
+            }
+        }
+        return null;
+    }
+
+    private CheckCache loadCache() {
+        if (!cache || cacheDirectory == null) {
+            return null;
+        }
+        String fingerprint = CheckCache.fingerprint(pluginVersion, formatting.fingerprint(), rules.fingerprint());
+        return CheckCache.load(cacheDirectory, fingerprint);
+    }
+
+    private void saveCache(CheckCache checkCache) {
+        if (checkCache == null) {
+            return;
+        }
+        try {
+            checkCache.save();
+        } catch (IOException e) {
+            getLog().warn("Could not write check cache to " + cacheDirectory + ": " + e.getMessage());
+        }
+    }
+
+    private void reportMetrics(EnforcerMetrics enforcerMetrics) {
+        if (!enforcerMetrics.isEnabled()) {
+            return;
+        }
+        MetricsReport report = new MetricsReport(enforcerMetrics);
+        for (String line : report.toLines()) {
+            getLog().info(line);
+        }
+        try {
+            report.writeJson(metricsFile.toPath());
+        } catch (IOException e) {
+            getLog().warn("Could not write metrics to " + metricsFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cancels the tasks that are still queued. Running ones are not interrupted: they see the
+     * stop flag at their next phase boundary and their results are discarded.
+     */
+    private static void cancel(List<? extends Future<?>> results) {
+        for (Future<?> result : results) {
+            result.cancel(false);
+        }
+    }
+
+    private List<RuleViolation> awaitResult(Future<List<RuleViolation>> result, File pomFile)
+            throws MojoExecutionException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while processing " + pomFile.getName(), e);
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException("Error processing " + pomFile.getName(), e.getCause());
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package pro.boto.maven.plugin.pom.enforcer.mojo;
 
+import pro.boto.maven.plugin.pom.enforcer.model.ViolationDetail;
 import pro.boto.maven.plugin.pom.enforcer.rules.DependencyOrderRule;
 import pro.boto.maven.plugin.pom.enforcer.rules.PomRule;
 import pro.boto.maven.plugin.pom.enforcer.rules.TemplateOrderRule;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,6 +24,7 @@ import java.util.List;
  *         <bomFirst>true</bomFirst>
  *         <bomPreserveOrder>true</bomPreserveOrder>
  *     </dependencyOrder>
+ *     <maxDetailEntries>20</maxDetailEntries>
  * </rules>
  * }</pre>
  */
@@ -74,6 +79,9 @@ public class RulesConfig {
     private TemplateOrder templateOrder = new TemplateOrder();
     private DependencyOrder dependencyOrder = new DependencyOrder();
 
+    /** Entries listed per violation detail before only the entries to move are listed. */
+    private int maxDetailEntries = ViolationDetail.DEFAULT_MAX_ENTRIES;
+
     public TemplateOrder getTemplateOrder() {
         return templateOrder;
     }
@@ -90,6 +98,14 @@ public class RulesConfig {
         this.dependencyOrder = dependencyOrder;
     }
 
+    public int getMaxDetailEntries() {
+        return maxDetailEntries;
+    }
+
+    public void setMaxDetailEntries(int maxDetailEntries) {
+        this.maxDetailEntries = maxDetailEntries;
+    }
+
     /**
      * Converts this Maven configuration into concrete rule instances.
      */
@@ -97,16 +113,56 @@ public class RulesConfig {
         List<PomRule> rules = new ArrayList<>();
 
         if (templateOrder != null) {
-            rules.add(new TemplateOrderRule().withTemplate(templateOrder.getTemplate()));
+            rules.add(new TemplateOrderRule()
+                    .withTemplate(templateOrder.getTemplate())
+                    .withMaxDetailEntries(maxDetailEntries));
         }
 
         if (dependencyOrder != null) {
             rules.add(new DependencyOrderRule()
                     .withSortBy(dependencyOrder.getSortBy())
                     .withBomFirst(dependencyOrder.isBomFirst())
-                    .withBomPreserveOrder(dependencyOrder.isBomPreserveOrder()));
+                    .withBomPreserveOrder(dependencyOrder.isBomPreserveOrder())
+                    .withMaxDetailEntries(maxDetailEntries));
         }
 
         return rules;
     }
+
+    /**
+     * Stable description of the effective rules, including the template content,
+     * used to invalidate caches whenever a rule would behave differently.
+     * {@code maxDetailEntries} only shapes reports of violating files, which are never cached.
+     */
+    public String fingerprint() {
+        StringBuilder sb = new StringBuilder();
+        if (templateOrder != null) {
+            sb.append("templateOrder{template=")
+                    .append(templateOrder.getTemplate())
+                    .append(";content=")
+                    .append(readTemplate(templateOrder.getTemplate()))
+                    .append('}');
+        }
+        if (dependencyOrder != null) {
+            sb.append("dependencyOrder{sortBy=")
+                    .append(dependencyOrder.getSortBy())
+                    .append(";bomFirst=")
+                    .append(dependencyOrder.isBomFirst())
+                    .append(";bomPreserveOrder=")
+                    .append(dependencyOrder.isBomPreserveOrder())
+                    .append('}');
+        }
+        return sb.toString();
+    }
+
+    private static String readTemplate(String templatePath) {
+        if (templatePath == null || templatePath.isBlank()) {
+            return "";
+        }
+        try (InputStream is = TemplateOrderRule.class.getResourceAsStream(templatePath)) {
+            return is == null ? "" : new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format("Template resource %s could not be read", templatePath), e);
+        }
+    }
 }
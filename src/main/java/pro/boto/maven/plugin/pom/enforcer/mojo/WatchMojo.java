@@ -0,0 +1,94 @@
+package pro.boto.maven.plugin.pom.enforcer.mojo;
+
+import pro.boto.maven.plugin.pom.enforcer.PomEnforcer;
+import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Stays running after a first pass over the reactor and re-processes each POM as it is saved.
+ * A single enforcer is kept for the whole session, so compiled templates, parsers and JIT-compiled
+ * code stay warm and only the changed file is read, checked and, optionally, rewritten.
+ *
+ * <p>Takes the {@code formatting}, {@code rules} and {@code failFast} configuration of the other
+ * goals, but none of their reactor-pass parameters (parallelism, cache, metrics, report, git
+ * selection). With {@code failFast}, each checked file reports only its first violation.
+ */
+@Mojo(name = "watch", aggregator = true)
+public class WatchMojo extends EnforcerMojo {
+
+    /**
+     * Fixes changed files in place instead of only reporting their violations.
+     */
+    @Parameter(property = "pom-enforcer.watch.apply", defaultValue = "false")
+    protected boolean watchApply;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        List<File> pomFiles = reactorPomFiles();
+        PomEnforcer enforcer = buildEnforcer();
+
+        int violated = 0;
+        for (File pomFile : pomFiles) {
+            try {
+                if (!process(enforcer, pomFile, Files.readAllBytes(pomFile.toPath()), false)) {
+                    violated++;
+                }
+            } catch (IOException e) {
+                throw new MojoExecutionException("Could not read " + pomFile, e);
+            }
+        }
+        getLog().info("Watching " + pomFiles.size() + " POM file(s), " + violated + " with violations. "
+                + "Press Ctrl+C to stop.");
+
+        try (PomWatcher watcher = new PomWatcher(pomFiles, (pomFile, content) -> {
+            process(enforcer, pomFile, content, true);
+            return watchApply ? Files.readAllBytes(pomFile.toPath()) : null;
+        })) {
+            watcher.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            throw new MojoExecutionException("Stopped watching POM files: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks or applies one file, logging the outcome. Failures such as a half-typed, malformed
+     * file are logged rather than thrown so the session survives them.
+     *
+     * @return whether the file was compliant
+     */
+    private boolean process(PomEnforcer enforcer, File pomFile, byte[] content, boolean logClean) {
+        long start = System.nanoTime();
+        List<RuleViolation> violations;
+        try {
+            violations = watchApply ? enforcer.apply(pomFile, content) : enforcer.check(pomFile, content);
+        } catch (Exception e) {
+            getLog().error("Could not process " + pomFile + ": " + e.getMessage());
+            return false;
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        if (violations.isEmpty()) {
+            if (logClean) {
+                getLog().info(pomFile + ": OK (" + millis + " ms)");
+            }
+            return true;
+        }
+        if (watchApply) {
+            getLog().info("Applied changes to: " + pomFile + " (" + millis + " ms)");
+        }
+        for (RuleViolation v : violations) {
+            getLog().error("Violation in " + pomFile + ": " + v);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,86 @@
+package pro.boto.maven.plugin.pom.enforcer.mojo;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Bounded pool used to fan reactor POMs out to worker threads.
+ *
+ * <p>With a parallelism of 1 tasks are deferred and run on the caller's thread when their
+ * result is requested, which keeps the historical sequential behaviour. Otherwise tasks run on
+ * a fixed pool of virtual threads (Java 21+) or on a {@link ForkJoinPool} (Java 11-20).
+ */
+final class WorkerPool implements AutoCloseable {
+
+    private final ExecutorService executor;
+
+    private WorkerPool(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    static WorkerPool create(int parallelism) {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        if (workers == 1) {
+            return new WorkerPool(null);
+        }
+        ThreadFactory virtualThreads = virtualThreadFactory();
+        if (virtualThreads != null) {
+            return new WorkerPool(Executors.newFixedThreadPool(workers, virtualThreads));
+        }
+        return new WorkerPool(new ForkJoinPool(workers));
+    }
+
+    <T> Future<T> submit(Callable<T> task) {
+        if (executor == null) {
+            return new DeferredTask<>(task);
+        }
+        return executor.submit(task);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Resolves {@code Thread.ofVirtual().factory()} reflectively so the plugin still targets Java 11.
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        if (Runtime.version().feature() < 21) {
+            return null;
+        }
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Object factory = Class.forName("java.lang.Thread$Builder")
+                    .getMethod("factory")
+                    .invoke(builder);
+            return (ThreadFactory) factory;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Future that runs its task on the first {@link #get()} call.
+     */
+    private static final class DeferredTask<T> extends FutureTask<T> {
+
+        DeferredTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            run();
+            return super.get();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package pro.boto.maven.plugin.pom.enforcer.report;
+
+import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.model.ViolationDetail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * One line per violation:
+ * {@code {"file":...,"rule":...,"message":...,"details":[{"path":...,"expected":...,"actual":...}]}}.
+ */
+final class JsonLinesReport implements ViolationReport {
+
+    private final Writer out;
+    private final Path baseDirectory;
+
+    JsonLinesReport(Writer out, Path baseDirectory) {
+        this.out = out;
+        this.baseDirectory = baseDirectory;
+    }
+
+    @Override
+    public void write(File pomFile, List<RuleViolation> violations) throws IOException {
+        if (violations.isEmpty()) {
+            return;
+        }
+        String file = Json.quote(ViolationReport.relativePath(baseDirectory, pomFile));
+        for (RuleViolation violation : violations) {
+            out.write("{\"file\":");
+            out.write(file);
+            out.write(",\"rule\":");
+            out.write(Json.quote(violation.ruleName()));
+            out.write(",\"message\":");
+            out.write(Json.quote(violation.message()));
+            out.write(",\"details\":[");
+            String separator = "";
+            for (ViolationDetail detail : violation.details()) {
+                out.write(separator);
+                out.write("{\"path\":");
+                out.write(Json.quote(detail.path()));
+                out.write(",\"expected\":");
+                out.write(Json.quote(detail.expected()));
+                out.write(",\"actual\":");
+                out.write(Json.quote(detail.actual()));
+                out.write('}');
+                separator = ",";
+            }
+            out.write("]}\n");
+        }
+        // Consumers tailing the file see each POM as soon as it is done
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
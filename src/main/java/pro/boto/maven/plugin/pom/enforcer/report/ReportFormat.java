@@ -0,0 +1,23 @@
+package pro.boto.maven.plugin.pom.enforcer.report;
+
+/**
+ * Machine-readable formats for the violation report.
+ */
+public enum ReportFormat {
+
+    /** One JSON object per violation and line, appended as each POM finishes. */
+    JSONL("jsonl"),
+
+    /** SARIF 2.1.0, understood by most code scanning and CI annotation tools. */
+    SARIF("sarif");
+
+    private final String extension;
+
+    ReportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
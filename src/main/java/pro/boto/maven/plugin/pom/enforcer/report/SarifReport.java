@@ -0,0 +1,77 @@
+package pro.boto.maven.plugin.pom.enforcer.report;
+
+import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.model.ViolationDetail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * SARIF 2.1.0 log with a single run. The header is written on open, each violation becomes a
+ * {@code result} as soon as its POM is done, and {@link #close()} terminates the document.
+ * Detail paths are reported as logical locations, since POM elements carry no line numbers.
+ */
+final class SarifReport implements ViolationReport {
+
+    private static final String TOOL_NAME = "pom-enforcer";
+    private static final String TOOL_URI = "https://github.com/eskabetxe/pom-enforcer-maven-plugin";
+
+    private final Writer out;
+    private final Path baseDirectory;
+    private boolean firstResult = true;
+
+    SarifReport(Writer out, Path baseDirectory, List<String> ruleNames) throws IOException {
+        this.out = out;
+        this.baseDirectory = baseDirectory;
+
+        out.write("{\n  \"$schema\": \"https://json.schemastore.org/sarif-2.1.0.json\",\n");
+        out.write("  \"version\": \"2.1.0\",\n  \"runs\": [{\n");
+        out.write("    \"tool\": {\"driver\": {\"name\": " + Json.quote(TOOL_NAME) + ", \"informationUri\": "
+                + Json.quote(TOOL_URI) + ", \"rules\": [");
+        String separator = "";
+        for (String ruleName : ruleNames) {
+            out.write(separator + "{\"id\": " + Json.quote(ruleName) + "}");
+            separator = ", ";
+        }
+        out.write("]}},\n    \"results\": [");
+    }
+
+    @Override
+    public void write(File pomFile, List<RuleViolation> violations) throws IOException {
+        if (violations.isEmpty()) {
+            return;
+        }
+        String uri = Json.quote(ViolationReport.relativePath(baseDirectory, pomFile));
+        for (RuleViolation violation : violations) {
+            out.write(firstResult ? "\n      " : ",\n      ");
+            firstResult = false;
+            out.write("{\"ruleId\": " + Json.quote(violation.ruleName()) + ", \"level\": \"error\", ");
+            out.write("\"message\": {\"text\": " + Json.quote(violation.message()) + "}, ");
+            out.write("\"locations\": [{\"physicalLocation\": {\"artifactLocation\": {\"uri\": " + uri + "}}");
+            if (!violation.details().isEmpty()) {
+                out.write(", \"logicalLocations\": [");
+                String separator = "";
+                for (ViolationDetail detail : violation.details()) {
+                    out.write(separator + "{\"fullyQualifiedName\": " + Json.quote(detail.path())
+                            + ", \"kind\": \"element\"}");
+                    separator = ", ";
+                }
+                out.write("]");
+            }
+            out.write("}]}");
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.write("\n    ]\n  }]\n}\n");
+        } finally {
+            out.close();
+        }
+    }
+}
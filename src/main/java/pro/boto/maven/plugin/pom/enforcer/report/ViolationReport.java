@@ -0,0 +1,59 @@
+package pro.boto.maven.plugin.pom.enforcer.report;
+
+import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Streams violations to a file as each POM finishes, so nothing is retained across the reactor.
+ *
+ * <p>Design contract:
+ * <ul>
+ *   <li>{@link #write} is called once per POM, in reactor order, from a single thread.</li>
+ *   <li>Paths are written relative to the base directory, with forward slashes.</li>
+ *   <li>{@link #close()} completes the document; the file is only valid once closed.</li>
+ * </ul>
+ */
+public interface ViolationReport extends Closeable {
+
+    void write(File pomFile, List<RuleViolation> violations) throws IOException;
+
+    /**
+     * Opens a report at {@code reportFile}, replacing any previous content.
+     *
+     * @param ruleNames names of the configured rules, declared up front where the format supports it
+     */
+    static ViolationReport open(ReportFormat format, Path reportFile, Path baseDirectory, List<String> ruleNames)
+            throws IOException {
+        Path parent = reportFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        BufferedWriter out = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8);
+        switch (format) {
+            case SARIF:
+                return new SarifReport(out, baseDirectory, ruleNames);
+            case JSONL:
+            default:
+                return new JsonLinesReport(out, baseDirectory);
+        }
+    }
+
+    static String relativePath(Path baseDirectory, File pomFile) {
+        Path path = pomFile.toPath().toAbsolutePath().normalize();
+        if (baseDirectory != null) {
+            Path base = baseDirectory.toAbsolutePath().normalize();
+            if (path.startsWith(base)) {
+                path = base.relativize(path);
+            }
+        }
+        return path.toString().replace(File.separatorChar, '/');
+    }
+}
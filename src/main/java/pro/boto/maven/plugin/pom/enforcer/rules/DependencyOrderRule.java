@@ -14,7 +14,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class DependencyOrderRule implements PomRule {
+public class DependencyOrderRule implements StreamingRule, VisitingRule {
 
     public static final String DEFAULT_SORT_BY = "groupId,artifactId,scope,classifier";
     public static final boolean DEFAULT_BOM_FIRST = true;
@@ -23,6 +23,7 @@ public class DependencyOrderRule implements PomRule {
     private List<String> sortFields;
     private boolean bomFirst;
     private boolean bomPreserveOrder;
+    private int maxDetailEntries = ViolationDetail.DEFAULT_MAX_ENTRIES;
 
     public DependencyOrderRule() {
         withSortBy(DEFAULT_SORT_BY);
@@ -50,6 +51,14 @@ public class DependencyOrderRule implements PomRule {
         return this;
     }
 
+    /**
+     * Number of dependencies listed in a violation detail before only the ones to move are listed.
+     */
+    public DependencyOrderRule withMaxDetailEntries(int maxDetailEntries) {
+        this.maxDetailEntries = maxDetailEntries;
+        return this;
+    }
+
     @Override
     public String getName() {
         return "dependency-order";
@@ -64,41 +73,35 @@ public class DependencyOrderRule implements PomRule {
 
     @Override
     public List<RuleViolation> analyze(Document document) {
-        List<RuleViolation> violations = new ArrayList<>();
-        Element root = document.getRootElement();
-        Namespace ns = root.getNamespace();
-
-        analyzeSection(root.getChild("dependencies", ns), ns, violations, "dependencies", false);
-
-        Element mgmt = root.getChild("dependencyManagement", ns);
-        if (mgmt != null) {
-            analyzeSection(
-                    mgmt.getChild("dependencies", ns), ns, violations, "dependencyManagement/dependencies", true);
-        }
+        ElementVisitor visitor = newVisitor();
+        TreeWalker.walk(document.getRootElement(), Collections.singletonList(visitor));
+        return visitor.violations();
+    }
 
-        return violations;
+    @Override
+    public ElementVisitor newVisitor() {
+        return new SectionVisitor();
     }
 
     private void analyzeSection(
             Element parent, Namespace ns, List<RuleViolation> violations, String path, boolean isManagedSection) {
         if (parent == null || parent.getChildren().size() < 2) return;
 
-        List<Element> original = parent.getChildren();
-        List<Element> sorted = new ArrayList<>(original);
-        sorted.sort(dependencyComparator(ns, isManagedSection));
+        // Keys without elements: the detail outlives the document and renders lazily
+        List<DependencyKey> original = extractKeys(parent, ns, false);
+        Comparator<DependencyKey> comparator = keyComparator(isManagedSection);
+        if (isSorted(original, comparator)) return;
 
-        if (!elementsMatchOrder(original, sorted, ns)) {
-            List<String> currentOrder =
-                    original.stream().map(e -> gavLabel(e, ns)).collect(Collectors.toList());
-            List<String> expectedOrder =
-                    sorted.stream().map(e -> gavLabel(e, ns)).collect(Collectors.toList());
+        ViolationDetail detail =
+                ViolationDetail.ofOrder(path, original, comparator, DependencyKey::gavLabel, maxDetailEntries);
 
-            ViolationDetail detail =
-                    new ViolationDetail(path, String.join(", ", expectedOrder), String.join(", ", currentOrder));
+        violations.add(new RuleViolation(
+                getName(), "Dependencies in <" + path + "> are not sorted.", Collections.singletonList(detail)));
+    }
 
-            violations.add(new RuleViolation(
-                    getName(), "Dependencies in <" + path + "> are not sorted.", Collections.singletonList(detail)));
-        }
+    @Override
+    public StreamingVerifier newStreamingVerifier() {
+        return new DependencyVerifier();
     }
 
     // ---- MUTATION ----
@@ -119,59 +122,266 @@ public class DependencyOrderRule implements PomRule {
     private void sortSection(Element parent, Namespace ns, boolean isManagedSection) {
         if (parent == null || parent.getChildren().size() < 2) return;
 
-        List<Element> sorted = new ArrayList<>(parent.getChildren());
-        sorted.sort(dependencyComparator(ns, isManagedSection));
+        List<DependencyKey> keys = extractKeys(parent, ns, true);
+        Comparator<DependencyKey> comparator = keyComparator(isManagedSection);
+        if (isSorted(keys, comparator)) return;
+
+        keys.sort(comparator);
+        List<Element> sorted = new ArrayList<>(keys.size());
+        for (DependencyKey key : keys) {
+            sorted.add(key.element);
+        }
         parent.setContent(sorted);
     }
 
     // ---- SHARED ----
 
-    private Comparator<Element> dependencyComparator(Namespace ns, boolean isManagedSection) {
-        return (left, right) -> compareDependencies(left, right, ns, isManagedSection);
+    /**
+     * Decorates each dependency with its sort key, reading every child element once.
+     * {@code withElements} keeps a reference to each dependency element, for sorting.
+     */
+    private List<DependencyKey> extractKeys(Element parent, Namespace ns, boolean withElements) {
+        List<Element> dependencies = parent.getChildren();
+        List<DependencyKey> keys = new ArrayList<>(dependencies.size());
+        KeyBuilder keyBuilder = new KeyBuilder(sortFields);
+        for (Element dependency : dependencies) {
+            keyBuilder.reset();
+            for (Element child : dependency.getChildren()) {
+                if (ns.equals(child.getNamespace())) {
+                    keyBuilder.accept(child.getName(), child.getTextTrim());
+                }
+            }
+            keys.add(keyBuilder.build(withElements ? dependency : null));
+        }
+        return keys;
     }
 
-    private int compareDependencies(Element left, Element right, Namespace ns, boolean isManagedSection) {
+    private Comparator<DependencyKey> keyComparator(boolean isManagedSection) {
         // BOM handling only applies to dependencyManagement
-        if (bomFirst && isManagedSection) {
-            boolean leftIsBom = isBom(left, ns);
-            boolean rightIsBom = isBom(right, ns);
+        boolean bomAware = bomFirst && isManagedSection;
+        return (left, right) -> {
+            if (bomAware) {
+                if (left.bom && !right.bom) return -1;
+                if (!left.bom && right.bom) return 1;
+                if (left.bom && bomPreserveOrder) return 0;
+            }
+            for (int i = 0; i < left.values.length; i++) {
+                int comparison = left.values[i].compareTo(right.values[i]);
+                if (comparison != 0) return comparison;
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * A stable sort keeps the current order exactly when no adjacent pair is inverted.
+     */
+    private static boolean isSorted(List<DependencyKey> keys, Comparator<DependencyKey> comparator) {
+        for (int i = 1; i < keys.size(); i++) {
+            if (comparator.compare(keys.get(i - 1), keys.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Picks the same sections as {@link #apply}: the first {@code <dependencies>} of the project
+     * and the first {@code <dependencies>} of its first {@code <dependencyManagement>}.
+     */
+    private final class SectionVisitor implements ElementVisitor {
+
+        private final List<RuleViolation> regularViolations = new ArrayList<>();
+        private final List<RuleViolation> managedViolations = new ArrayList<>();
+        private Namespace ns;
+
+        @Override
+        public void enterElement(Element element) {
+            Element parent = element.getParentElement();
+            if (parent == null) {
+                ns = element.getNamespace();
+                return;
+            }
+            if (!"dependencies".equals(element.getName()) || parent.getChild("dependencies", ns) != element) {
+                return;
+            }
+            if (parent.isRootElement()) {
+                analyzeSection(element, ns, regularViolations, "dependencies", false);
+            } else if (parent.getParentElement().isRootElement()
+                    && parent.getParentElement().getChild("dependencyManagement", ns) == parent) {
+                analyzeSection(element, ns, managedViolations, "dependencyManagement/dependencies", true);
+            }
+        }
 
-            if (leftIsBom && !rightIsBom) return -1;
-            if (!leftIsBom && rightIsBom) return 1;
-            if (leftIsBom && rightIsBom && bomPreserveOrder) return 0;
+        @Override
+        public List<RuleViolation> violations() {
+            List<RuleViolation> violations = new ArrayList<>(regularViolations);
+            violations.addAll(managedViolations);
+            return violations;
         }
 
-        for (String field : sortFields) {
-            String leftVal = getChildText(left, field, ns);
-            String rightVal = getChildText(right, field, ns);
-            int comparison = leftVal.compareTo(rightVal);
-            if (comparison != 0) return comparison;
+        @Override
+        public boolean hasViolation() {
+            return !regularViolations.isEmpty() || !managedViolations.isEmpty();
         }
-        return 0;
     }
 
-    private boolean isBom(Element element, Namespace ns) {
-        String type = getChildText(element, "type", ns);
-        String scope = getChildText(element, "scope", ns);
-        return "pom".equalsIgnoreCase(type) && "import".equalsIgnoreCase(scope);
-    }
+    /**
+     * Streaming counterpart of {@link #analyzeSection}: keeps only the key of the previous
+     * dependency in the section being read.
+     */
+    private final class DependencyVerifier implements StreamingVerifier {
+
+        private final KeyBuilder keyBuilder = new KeyBuilder(sortFields);
+        private final StringBuilder fieldText = new StringBuilder();
+        private String rootNamespace;
+        private int depth;
+        private boolean regularSectionSeen;
+        private boolean managementSeen;
+        private boolean managedSectionSeen;
+        private boolean inManagement;
+        private int sectionDepth;
+        private Comparator<DependencyKey> comparator;
+        private DependencyKey previous;
+        private String fieldName;
+        private boolean violation;
+
+        @Override
+        public void startElement(String namespaceUri, String localName) {
+            depth++;
+            if (depth == 1) {
+                rootNamespace = namespaceUri;
+            } else if (sectionDepth == 0) {
+                // Same lookups as analyze(): first <dependencies> and first <dependencyManagement/dependencies>
+                if (!rootNamespace.equals(namespaceUri)) return;
+                if (depth == 2 && !regularSectionSeen && "dependencies".equals(localName)) {
+                    regularSectionSeen = true;
+                    openSection(false);
+                } else if (depth == 2 && !managementSeen && "dependencyManagement".equals(localName)) {
+                    managementSeen = true;
+                    inManagement = true;
+                } else if (depth == 3 && inManagement && !managedSectionSeen && "dependencies".equals(localName)) {
+                    managedSectionSeen = true;
+                    openSection(true);
+                }
+            } else if (depth == sectionDepth + 1) {
+                keyBuilder.reset();
+            } else if (depth == sectionDepth + 2 && rootNamespace.equals(namespaceUri)) {
+                fieldName = localName;
+                fieldText.setLength(0);
+            }
+        }
 
-    private String getChildText(Element element, String name, Namespace ns) {
-        Element child = element.getChild(name, ns);
-        return (child != null) ? child.getTextTrim() : "";
+        private void openSection(boolean isManagedSection) {
+            sectionDepth = depth;
+            comparator = keyComparator(isManagedSection);
+            previous = null;
+        }
+
+        @Override
+        public void characters(char[] text, int start, int length) {
+            if (fieldName != null && depth == sectionDepth + 2) {
+                fieldText.append(text, start, length);
+            }
+        }
+
+        @Override
+        public void endElement() {
+            if (sectionDepth > 0) {
+                if (depth == sectionDepth + 2 && fieldName != null) {
+                    keyBuilder.accept(fieldName, fieldText.toString().trim());
+                    fieldName = null;
+                } else if (depth == sectionDepth + 1) {
+                    DependencyKey key = keyBuilder.build(null);
+                    if (previous != null && comparator.compare(previous, key) > 0) {
+                        violation = true;
+                    }
+                    previous = key;
+                } else if (depth == sectionDepth) {
+                    sectionDepth = 0;
+                }
+            }
+            if (depth == 2) {
+                inManagement = false;
+            }
+            depth--;
+        }
+
+        @Override
+        public boolean hasViolation() {
+            return violation;
+        }
     }
 
-    private String gavLabel(Element dep, Namespace ns) {
-        return getChildText(dep, "groupId", ns) + ":" + getChildText(dep, "artifactId", ns);
+    /**
+     * Sort key of a single dependency: the {@code sortBy} values in order plus its BOM status.
+     */
+    private static final class DependencyKey {
+
+        private final Element element;
+        private final String[] values;
+        private final String groupId;
+        private final String artifactId;
+        private final boolean bom;
+
+        DependencyKey(Element element, String[] values, String groupId, String artifactId, boolean bom) {
+            this.element = element;
+            this.values = values;
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.bom = bom;
+        }
+
+        String gavLabel() {
+            return groupId + ":" + artifactId;
+        }
     }
 
-    private boolean elementsMatchOrder(List<Element> original, List<Element> sorted, Namespace ns) {
-        if (original.size() != sorted.size()) return false;
-        for (int i = 0; i < original.size(); i++) {
-            if (!gavLabel(original.get(i), ns).equals(gavLabel(sorted.get(i), ns))) {
-                return false;
+    /**
+     * Collects the child values of one dependency, shared by the tree and streaming paths.
+     */
+    private static final class KeyBuilder {
+
+        private final List<String> sortFields;
+        private String[] values;
+        private String groupId;
+        private String artifactId;
+        private String type;
+        private String scope;
+
+        KeyBuilder(List<String> sortFields) {
+            this.sortFields = sortFields;
+            reset();
+        }
+
+        void reset() {
+            values = new String[sortFields.size()];
+            groupId = null;
+            artifactId = null;
+            type = null;
+            scope = null;
+        }
+
+        /**
+         * First matching child wins, as with {@link Element#getChild}.
+         */
+        void accept(String name, String text) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null && sortFields.get(i).equals(name)) values[i] = text;
             }
+            if (groupId == null && "groupId".equals(name)) groupId = text;
+            if (artifactId == null && "artifactId".equals(name)) artifactId = text;
+            if (type == null && "type".equals(name)) type = text;
+            if (scope == null && "scope".equals(name)) scope = text;
+        }
+
+        DependencyKey build(Element element) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) values[i] = "";
+            }
+            boolean bom = "pom".equalsIgnoreCase(type) && "import".equalsIgnoreCase(scope);
+            return new DependencyKey(
+                    element, values, groupId != null ? groupId : "", artifactId != null ? artifactId : "", bom);
         }
-        return true;
     }
 }
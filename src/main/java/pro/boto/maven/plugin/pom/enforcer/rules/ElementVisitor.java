@@ -0,0 +1,37 @@
+package pro.boto.maven.plugin.pom.enforcer.rules;
+
+import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+
+import org.jdom2.Element;
+
+import java.util.List;
+
+/**
+ * Read-only callbacks for a depth-first walk over a POM document.
+ * Elements are entered in document order; an element is left after all its descendants.
+ */
+public interface ElementVisitor {
+
+    /**
+     * Called before any child of {@code element} is visited. MUST NOT mutate the document.
+     */
+    void enterElement(Element element);
+
+    /**
+     * Called after every child of {@code element} was visited.
+     */
+    default void leaveElement(Element element) {}
+
+    /**
+     * Violations collected so far, in reporting order.
+     */
+    List<RuleViolation> violations();
+
+    /**
+     * Whether at least one violation was collected. Checked after every element by fail-fast
+     * walks, so implementations should answer without building the violation list.
+     */
+    default boolean hasViolation() {
+        return !violations().isEmpty();
+    }
+}
@@ -1,5 +1,10 @@
 package pro.boto.maven.plugin.pom.enforcer.rules;
 
+import pro.boto.maven.plugin.pom.enforcer.metrics.EnforcerMetrics;
+import pro.boto.maven.plugin.pom.enforcer.metrics.FlightEvents;
+import pro.boto.maven.plugin.pom.enforcer.metrics.Phase;
+import pro.boto.maven.plugin.pom.enforcer.metrics.Probe;
+import pro.boto.maven.plugin.pom.enforcer.metrics.RuleEvent;
 import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
 
 import org.jdom2.Document;
@@ -8,6 +13,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BooleanSupplier;
 
 /**
  * Immutable, priority-sorted collection of {@link PomRule} instances.
@@ -15,34 +23,220 @@ import java.util.List;
  */
 public final class RuleRegistry {
 
+    /**
+     * Number of elements from which {@link #analyzeAll} runs the rules concurrently.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10_000;
+
     private final List<PomRule> rules;
+    private final int parallelThreshold;
 
     public RuleRegistry(List<PomRule> rules) {
+        this(rules, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * @param parallelThreshold number of elements from which a document is analyzed by all rules
+     *     concurrently; {@link Integer#MAX_VALUE} keeps analysis on the calling thread
+     */
+    public RuleRegistry(List<PomRule> rules, int parallelThreshold) {
         List<PomRule> sorted = new ArrayList<>(rules);
         sorted.sort(Comparator.comparingInt(PomRule::getPriority));
         this.rules = Collections.unmodifiableList(sorted);
+        this.parallelThreshold = parallelThreshold;
     }
 
     /**
-     * Read-only pass: runs {@code analyze()} on every rule, collects all violations.
+     * Read-only pass: collects the violations of every rule, in priority order.
+     * All {@link VisitingRule}s share one tree walk; other rules run {@code analyze()} on their own.
      */
     public List<RuleViolation> analyzeAll(Document document) {
+        return analyzeAll(document, null, EnforcerMetrics.disabled());
+    }
+
+    /**
+     * Same as {@link #analyzeAll(Document)}, recording the time and allocation of each rule.
+     * While a JFR recording captures {@link RuleEvent}s, visiting rules walk the tree one at a
+     * time so each event covers a single rule.
+     *
+     * <p>Documents with at least {@code parallelThreshold} elements are analyzed by every rule
+     * concurrently, each with its own {@code analyze()}: the document is only read, so the rules
+     * are independent. Smaller documents keep the single shared walk.
+     *
+     * @param path POM file path labelling the {@link RuleEvent}s, or {@code null}
+     */
+    public List<RuleViolation> analyzeAll(Document document, String path, EnforcerMetrics metrics) {
+        if (rules.size() > 1 && TreeWalker.hasAtLeast(document.getRootElement(), parallelThreshold)) {
+            return analyzeConcurrently(document, path, metrics);
+        }
+        List<ElementVisitor> visitors = new ArrayList<>();
+        List<String> visitorRules = new ArrayList<>();
+        List<List<RuleViolation>> results = new ArrayList<>(rules.size());
+        for (PomRule rule : rules) {
+            if (rule instanceof VisitingRule) {
+                ElementVisitor visitor = ((VisitingRule) rule).newVisitor();
+                visitors.add(visitor);
+                visitorRules.add(rule.getName());
+                results.add(null);
+            } else {
+                results.add(analyzeMeasured(rule, document, path, metrics));
+            }
+        }
+
+        if (!visitors.isEmpty()) {
+            if (FlightEvents.isActive() && new RuleEvent().isEnabled()) {
+                walkEach(document, path, visitors, visitorRules, metrics);
+            } else if (metrics.isEnabled()) {
+                long[] nanos = new long[visitors.size()];
+                long[] bytes = new long[visitors.size()];
+                TreeWalker.walkMeasured(document.getRootElement(), visitors, nanos, bytes);
+                for (int i = 0; i < visitors.size(); i++) {
+                    metrics.recordRule(visitorRules.get(i), Phase.ANALYZE, nanos[i], bytes[i]);
+                }
+            } else {
+                TreeWalker.walk(document.getRootElement(), visitors);
+            }
+        }
+
         List<RuleViolation> violations = new ArrayList<>();
+        int nextVisitor = 0;
+        for (List<RuleViolation> result : results) {
+            violations.addAll(
+                    result != null ? result : visitors.get(nextVisitor++).violations());
+        }
+        return violations;
+    }
+
+    private List<RuleViolation> analyzeConcurrently(Document document, String path, EnforcerMetrics metrics) {
+        List<ForkJoinTask<List<RuleViolation>>> tasks = new ArrayList<>(rules.size());
         for (PomRule rule : rules) {
-            violations.addAll(rule.analyze(document));
+            tasks.add(ForkJoinTask.adapt(() -> analyzeMeasured(rule, document, path, metrics)));
+        }
+        // Runs in the caller's pool when there is one, the common pool otherwise
+        ForkJoinTask.invokeAll(tasks);
+
+        List<RuleViolation> violations = new ArrayList<>();
+        for (ForkJoinTask<List<RuleViolation>> task : tasks) {
+            violations.addAll(task.join());
         }
         return violations;
     }
 
+    private static List<RuleViolation> analyzeMeasured(
+            PomRule rule, Document document, String path, EnforcerMetrics metrics) {
+        RuleEvent event = FlightEvents.rule();
+        Probe probe = metrics.start();
+        List<RuleViolation> result = rule.analyze(document);
+        metrics.recordRule(rule.getName(), Phase.ANALYZE, probe);
+        if (event != null) {
+            event.commit(path, rule.getName(), Phase.ANALYZE, result.size());
+        }
+        return result;
+    }
+
+    /**
+     * Fail-fast pass: runs the rules in priority order and returns the violations of the first
+     * rule that reports any. Visiting rules walk the tree one at a time and stop at their first
+     * violation, so the result may be a subset of what {@link #analyzeAll} reports.
+     */
+    public List<RuleViolation> analyzeFirst(Document document, EnforcerMetrics metrics) {
+        return analyzeFirst(document, null, metrics, () -> false);
+    }
+
+    /**
+     * Same as {@link #analyzeFirst(Document, EnforcerMetrics)}, checking {@code stopped} before
+     * each rule.
+     *
+     * @param path POM file path labelling the {@link RuleEvent}s, or {@code null}
+     * @throws CancellationException if {@code stopped} turns true before the last rule ran
+     */
+    public List<RuleViolation> analyzeFirst(
+            Document document, String path, EnforcerMetrics metrics, BooleanSupplier stopped) {
+        for (PomRule rule : rules) {
+            if (stopped.getAsBoolean()) {
+                throw new CancellationException("Stopped before rule " + rule.getName());
+            }
+            RuleEvent event = FlightEvents.rule();
+            Probe probe = metrics.start();
+            List<RuleViolation> result;
+            if (rule instanceof VisitingRule) {
+                ElementVisitor visitor = ((VisitingRule) rule).newVisitor();
+                TreeWalker.walkUntilViolation(document.getRootElement(), visitor);
+                result = visitor.violations();
+            } else {
+                result = rule.analyze(document);
+            }
+            metrics.recordRule(rule.getName(), Phase.ANALYZE, probe);
+            if (event != null) {
+                event.commit(path, rule.getName(), Phase.ANALYZE, result.size());
+            }
+            if (!result.isEmpty()) {
+                return result;
+            }
+        }
+        return Collections.emptyList();
+    }
+
     /**
      * Mutation pass: runs {@code apply()} on every rule in priority order.
      */
     public void applyAll(Document document) {
+        applyAll(document, null, EnforcerMetrics.disabled());
+    }
+
+    /**
+     * Same as {@link #applyAll(Document)}, recording the time and allocation of each rule.
+     *
+     * @param path POM file path labelling the {@link RuleEvent}s, or {@code null}
+     */
+    public void applyAll(Document document, String path, EnforcerMetrics metrics) {
         for (PomRule rule : rules) {
+            RuleEvent event = FlightEvents.rule();
+            Probe probe = metrics.start();
             rule.apply(document);
+            metrics.recordRule(rule.getName(), Phase.APPLY, probe);
+            if (event != null) {
+                event.commit(path, rule.getName(), Phase.APPLY, 0);
+            }
+        }
+    }
+
+    private static void walkEach(
+            Document document,
+            String path,
+            List<ElementVisitor> visitors,
+            List<String> names,
+            EnforcerMetrics metrics) {
+        for (int i = 0; i < visitors.size(); i++) {
+            ElementVisitor visitor = visitors.get(i);
+            RuleEvent event = FlightEvents.rule();
+            Probe probe = metrics.start();
+            TreeWalker.walk(document.getRootElement(), Collections.singletonList(visitor));
+            metrics.recordRule(names.get(i), Phase.ANALYZE, probe);
+            if (event != null) {
+                event.commit(
+                        path, names.get(i), Phase.ANALYZE, visitor.violations().size());
+            }
         }
     }
 
+    /**
+     * Streaming pass: combines the verifiers of every rule into one handler, so a single
+     * forward read decides whether the document complies with all rules.
+     *
+     * @return the combined verifier, or {@code null} if some rule is not a {@link StreamingRule}
+     */
+    public StreamingVerifier newStreamingVerifier() {
+        List<StreamingVerifier> verifiers = new ArrayList<>(rules.size());
+        for (PomRule rule : rules) {
+            if (!(rule instanceof StreamingRule)) {
+                return null;
+            }
+            verifiers.add(((StreamingRule) rule).newStreamingVerifier());
+        }
+        return new CompositeVerifier(verifiers);
+    }
+
     public List<PomRule> getRules() {
         return rules;
     }
@@ -50,4 +244,44 @@ public final class RuleRegistry {
     public boolean isEmpty() {
         return rules.isEmpty();
     }
+
+    private static final class CompositeVerifier implements StreamingVerifier {
+
+        private final List<StreamingVerifier> verifiers;
+
+        CompositeVerifier(List<StreamingVerifier> verifiers) {
+            this.verifiers = verifiers;
+        }
+
+        @Override
+        public void startElement(String namespaceUri, String localName) {
+            for (StreamingVerifier verifier : verifiers) {
+                verifier.startElement(namespaceUri, localName);
+            }
+        }
+
+        @Override
+        public void characters(char[] text, int start, int length) {
+            for (StreamingVerifier verifier : verifiers) {
+                verifier.characters(text, start, length);
+            }
+        }
+
+        @Override
+        public void endElement() {
+            for (StreamingVerifier verifier : verifiers) {
+                verifier.endElement();
+            }
+        }
+
+        @Override
+        public boolean hasViolation() {
+            for (StreamingVerifier verifier : verifiers) {
+                if (verifier.hasViolation()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package pro.boto.maven.plugin.pom.enforcer.rules;
+
+/**
+ * Optional extension for rules that can decide compliance in one forward pass over the raw POM,
+ * without building a document tree. The {@code check} goal uses it to skip JDOM analysis of
+ * compliant files and only falls back to {@link #analyze} for detailed reporting.
+ *
+ * <p>Design contracts:
+ * <ul>
+ *   <li>The verifier MUST report a violation exactly when {@code analyze()} would.</li>
+ *   <li>If the verifier accepts a document, {@code apply()} MUST leave it unchanged.</li>
+ * </ul>
+ */
+public interface StreamingRule extends PomRule {
+
+    /**
+     * Creates a single-use verifier for one document.
+     */
+    StreamingVerifier newStreamingVerifier();
+}
@@ -0,0 +1,17 @@
+package pro.boto.maven.plugin.pom.enforcer.rules;
+
+import pro.boto.maven.plugin.pom.enforcer.serde.PomStreamHandler;
+
+/**
+ * Forward-only compliance check created by a {@link StreamingRule}.
+ * Stops consuming events as soon as the first violation is seen.
+ */
+public interface StreamingVerifier extends PomStreamHandler {
+
+    boolean hasViolation();
+
+    @Override
+    default boolean isDone() {
+        return hasViolation();
+    }
+}
@@ -11,17 +11,31 @@ import org.jdom2.input.SAXBuilder;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
 
-public class TemplateOrderRule implements PomRule {
+public class TemplateOrderRule implements StreamingRule, VisitingRule {
 
     public static final String DEFAULT_TEMPLATE_PATH = "/default_formatter.xml";
 
-    private final Map<String, List<String>> orderMap = new HashMap<>();
+    /**
+     * Number of children from which the subtrees of an element are analyzed and sorted with fork/join.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+
+    // Children per fork/join leaf task
+    private static final int SPLIT_SIZE = 128;
+
+    private final Map<String, ElementOrder> orderMap = new HashMap<>();
+    private int maxDetailEntries = ViolationDetail.DEFAULT_MAX_ENTRIES;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
 
     public TemplateOrderRule() {
         withTemplate(DEFAULT_TEMPLATE_PATH);
@@ -42,16 +56,33 @@ public class TemplateOrderRule implements PomRule {
         return this;
     }
 
+    /**
+     * Number of child names listed in a violation detail before only the ones to move are listed.
+     */
+    public TemplateOrderRule withMaxDetailEntries(int maxDetailEntries) {
+        this.maxDetailEntries = maxDetailEntries;
+        return this;
+    }
+
+    /**
+     * Number of children from which the subtrees of an element are split into fork/join tasks;
+     * {@link Integer#MAX_VALUE} keeps {@code analyze()} and {@code apply()} on the calling thread.
+     */
+    public TemplateOrderRule withParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+        return this;
+    }
+
     private void parseTemplate(Element element) {
         List<Element> children = element.getChildren();
         if (children.isEmpty()) return;
 
-        List<String> order = new ArrayList<>();
+        Map<String, Integer> ranks = new HashMap<>();
         for (Element child : children) {
-            order.add(child.getName());
+            ranks.putIfAbsent(child.getName(), ranks.size());
             parseTemplate(child);
         }
-        orderMap.put(element.getName(), order);
+        orderMap.put(element.getName(), new ElementOrder(ranks));
     }
 
     @Override
@@ -66,10 +97,33 @@ public class TemplateOrderRule implements PomRule {
 
     // ---- READ-ONLY ----
 
+    /**
+     * Same traversal as {@link OrderVisitor}, except that the subtrees of wide elements (a
+     * {@code <dependencies>} section with thousands of entries) are analyzed with fork/join.
+     * Details keep document order.
+     */
     @Override
     public List<RuleViolation> analyze(Document document) {
         List<ViolationDetail> details = new ArrayList<>();
-        collectViolations(document.getRootElement(), details);
+        collectAll(document.getRootElement(), details);
+        return toViolations(details);
+    }
+
+    private void collectAll(Element parent, List<ViolationDetail> details) {
+        collectViolations(parent, details);
+        List<Element> children = parent.getChildren();
+        if (children.size() >= parallelThreshold) {
+            // Child views are not thread-safe, so the tasks share a plain array
+            Element[] elements = children.toArray(new Element[0]);
+            details.addAll(new CollectTask(elements, 0, elements.length).invoke());
+        } else {
+            for (Element child : children) {
+                collectAll(child, details);
+            }
+        }
+    }
+
+    private List<RuleViolation> toViolations(List<ViolationDetail> details) {
         if (details.isEmpty()) {
             return Collections.emptyList();
         }
@@ -77,25 +131,29 @@ public class TemplateOrderRule implements PomRule {
                 new RuleViolation(getName(), "Elements are not in the expected order.", details));
     }
 
+    @Override
+    public ElementVisitor newVisitor() {
+        return new OrderVisitor();
+    }
+
     private void collectViolations(Element parent, List<ViolationDetail> details) {
-        List<String> order = orderMap.get(parent.getName());
+        ElementOrder order = orderMap.get(parent.getName());
         List<Element> children = parent.getChildren();
 
-        if (order != null && children.size() > 1) {
-            List<String> currentNames = children.stream().map(Element::getName).collect(Collectors.toList());
-
-            List<String> sortedNames = new ArrayList<>(currentNames);
-            sortedNames.sort(templateComparator(order));
-
-            if (!currentNames.equals(sortedNames)) {
-                details.add(new ViolationDetail(
-                        parent.getName(), String.join(", ", sortedNames), String.join(", ", currentNames)));
+        if (order != null && !order.isInOrder(children)) {
+            // Names are shared with the document, so only the list is allocated until rendering
+            List<String> currentNames = new ArrayList<>(children.size());
+            for (Element child : children) {
+                currentNames.add(child.getName());
             }
+            details.add(ViolationDetail.ofOrder(
+                    parent.getName(), currentNames, order, Function.identity(), maxDetailEntries));
         }
+    }
 
-        for (Element child : children) {
-            collectViolations(child, details);
-        }
+    @Override
+    public StreamingVerifier newStreamingVerifier() {
+        return new OrderVerifier();
     }
 
     // ---- MUTATION ----
@@ -106,29 +164,194 @@ public class TemplateOrderRule implements PomRule {
     }
 
     private void sortElement(Element parent) {
-        List<String> order = orderMap.get(parent.getName());
-        List<Element> children = new ArrayList<>(parent.getChildren());
+        ElementOrder order = orderMap.get(parent.getName());
 
-        if (order != null && children.size() > 1) {
-            children.sort((left, right) -> templateComparator(order).compare(left.getName(), right.getName()));
+        if (order != null && !order.isInOrder(parent.getChildren())) {
+            List<Element> children = new ArrayList<>(parent.getChildren());
+            children.sort(order.byName);
             parent.setContent(children);
         }
 
-        for (Element child : parent.getChildren()) {
-            sortElement(child);
+        List<Element> children = parent.getChildren();
+        if (children.size() >= parallelThreshold) {
+            // Each task only reorders content inside its own subtrees, which are disjoint
+            Element[] elements = children.toArray(new Element[0]);
+            new SortTask(elements, 0, elements.length).invoke();
+        } else {
+            for (Element child : children) {
+                sortElement(child);
+            }
         }
     }
 
     // ---- SHARED ----
 
-    private java.util.Comparator<String> templateComparator(List<String> order) {
-        return (left, right) -> {
-            int leftIndex = order.indexOf(left);
-            int rightIndex = order.indexOf(right);
-            if (leftIndex != -1 && rightIndex != -1) return Integer.compare(leftIndex, rightIndex);
-            if (leftIndex != -1) return -1;
-            if (rightIndex != -1) return 1;
-            return left.compareTo(right);
-        };
+    private final class OrderVisitor implements ElementVisitor {
+
+        private final List<ViolationDetail> details = new ArrayList<>();
+
+        @Override
+        public void enterElement(Element element) {
+            collectViolations(element, details);
+        }
+
+        @Override
+        public List<RuleViolation> violations() {
+            return toViolations(details);
+        }
+
+        @Override
+        public boolean hasViolation() {
+            return !details.isEmpty();
+        }
+    }
+
+    /**
+     * Analyzes the subtrees of {@code elements[from, to)}, halving the range down to
+     * {@link #SPLIT_SIZE} children and concatenating the halves in order.
+     */
+    private final class CollectTask extends RecursiveTask<List<ViolationDetail>> {
+
+        private final Element[] elements;
+        private final int from;
+        private final int to;
+
+        CollectTask(Element[] elements, int from, int to) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<ViolationDetail> compute() {
+            if (to - from <= SPLIT_SIZE) {
+                List<ViolationDetail> details = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    collectAll(elements[i], details);
+                }
+                return details;
+            }
+            int middle = (from + to) >>> 1;
+            CollectTask right = new CollectTask(elements, middle, to);
+            right.fork();
+            List<ViolationDetail> details = new CollectTask(elements, from, middle).compute();
+            details.addAll(right.join());
+            return details;
+        }
+    }
+
+    /**
+     * Sorts the subtrees of {@code elements[from, to)}, split like {@link CollectTask}.
+     */
+    private final class SortTask extends RecursiveAction {
+
+        private final Element[] elements;
+        private final int from;
+        private final int to;
+
+        SortTask(Element[] elements, int from, int to) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_SIZE) {
+                for (int i = from; i < to; i++) {
+                    sortElement(elements[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SortTask(elements, from, middle), new SortTask(elements, middle, to));
+        }
+    }
+
+    /**
+     * Streaming counterpart of {@link OrderVisitor}: keeps the compiled order and the
+     * previous child name for every open element.
+     */
+    private final class OrderVerifier implements StreamingVerifier {
+
+        private ElementOrder[] orders = new ElementOrder[16];
+        private String[] previousNames = new String[16];
+        private int depth;
+        private boolean violation;
+
+        @Override
+        public void startElement(String namespaceUri, String localName) {
+            if (depth > 0) {
+                ElementOrder parentOrder = orders[depth - 1];
+                String previous = previousNames[depth - 1];
+                if (parentOrder != null && previous != null && parentOrder.compare(previous, localName) > 0) {
+                    violation = true;
+                }
+                previousNames[depth - 1] = localName;
+            }
+            if (depth == orders.length) {
+                orders = Arrays.copyOf(orders, depth * 2);
+                previousNames = Arrays.copyOf(previousNames, depth * 2);
+            }
+            orders[depth] = orderMap.get(localName);
+            previousNames[depth] = null;
+            depth++;
+        }
+
+        @Override
+        public void characters(char[] text, int start, int length) {}
+
+        @Override
+        public void endElement() {
+            depth--;
+        }
+
+        @Override
+        public boolean hasViolation() {
+            return violation;
+        }
+    }
+
+    /**
+     * Child order of one template element, compiled to name ranks.
+     * Names missing from the template sort alphabetically after all known names.
+     */
+    private static final class ElementOrder implements Comparator<String> {
+
+        private static final int UNKNOWN = Integer.MAX_VALUE;
+
+        private final Map<String, Integer> ranks;
+        private final Comparator<Element> byName = (left, right) -> compare(left.getName(), right.getName());
+
+        ElementOrder(Map<String, Integer> ranks) {
+            this.ranks = ranks;
+        }
+
+        @Override
+        public int compare(String left, String right) {
+            int comparison = Integer.compare(rank(left), rank(right));
+            return comparison != 0 ? comparison : left.compareTo(right);
+        }
+
+        /**
+         * Linear scan: a stable sort leaves the children untouched exactly when
+         * no adjacent pair is out of order.
+         */
+        boolean isInOrder(List<Element> children) {
+            String previous = null;
+            for (Element child : children) {
+                String name = child.getName();
+                if (previous != null && compare(previous, name) > 0) {
+                    return false;
+                }
+                previous = name;
+            }
+            return true;
+        }
+
+        private int rank(String name) {
+            Integer rank = ranks.get(name);
+            return rank != null ? rank : UNKNOWN;
+        }
     }
 }
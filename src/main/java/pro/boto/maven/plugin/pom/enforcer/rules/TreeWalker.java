@@ -0,0 +1,92 @@
+package pro.boto.maven.plugin.pom.enforcer.rules;
+
+import pro.boto.maven.plugin.pom.enforcer.metrics.EnforcerMetrics;
+
+import org.jdom2.Content;
+import org.jdom2.Element;
+
+import java.util.List;
+
+/**
+ * Depth-first walk dispatching every element to a set of {@link ElementVisitor}s.
+ */
+final class TreeWalker {
+
+    private TreeWalker() {}
+
+    static void walk(Element element, List<ElementVisitor> visitors) {
+        for (ElementVisitor visitor : visitors) {
+            visitor.enterElement(element);
+        }
+        for (Element child : element.getChildren()) {
+            walk(child, visitors);
+        }
+        for (ElementVisitor visitor : visitors) {
+            visitor.leaveElement(element);
+        }
+    }
+
+    /**
+     * Walk with a single visitor that stops as soon as it reports a violation.
+     * Elements entered before stopping are not left.
+     *
+     * @return whether the walk stopped on a violation
+     */
+    static boolean walkUntilViolation(Element element, ElementVisitor visitor) {
+        visitor.enterElement(element);
+        if (visitor.hasViolation()) {
+            return true;
+        }
+        for (Element child : element.getChildren()) {
+            if (walkUntilViolation(child, visitor)) {
+                return true;
+            }
+        }
+        visitor.leaveElement(element);
+        return visitor.hasViolation();
+    }
+
+    /**
+     * Same walk, accumulating the time and allocation of each visitor into {@code nanos[i]}
+     * and {@code bytes[i]}. Only used when metrics are enabled.
+     */
+    static void walkMeasured(Element element, List<ElementVisitor> visitors, long[] nanos, long[] bytes) {
+        for (int i = 0; i < visitors.size(); i++) {
+            long startNanos = System.nanoTime();
+            long startBytes = EnforcerMetrics.allocatedBytes();
+            visitors.get(i).enterElement(element);
+            nanos[i] += System.nanoTime() - startNanos;
+            bytes[i] += EnforcerMetrics.allocatedBytes() - startBytes;
+        }
+        for (Element child : element.getChildren()) {
+            walkMeasured(child, visitors, nanos, bytes);
+        }
+        for (int i = 0; i < visitors.size(); i++) {
+            long startNanos = System.nanoTime();
+            long startBytes = EnforcerMetrics.allocatedBytes();
+            visitors.get(i).leaveElement(element);
+            nanos[i] += System.nanoTime() - startNanos;
+            bytes[i] += EnforcerMetrics.allocatedBytes() - startBytes;
+        }
+    }
+
+    /**
+     * Whether the subtree of {@code element} holds at least {@code limit} elements. Counting stops
+     * at the limit, and reads the content lists directly so no child views are allocated.
+     */
+    static boolean hasAtLeast(Element element, int limit) {
+        return count(element, limit) >= limit;
+    }
+
+    private static int count(Element element, int limit) {
+        int count = 1;
+        List<Content> content = element.getContent();
+        for (int i = 0, size = content.size(); i < size && count < limit; i++) {
+            Content child = content.get(i);
+            if (child instanceof Element) {
+                count += count((Element) child, limit - count);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,17 @@
+package pro.boto.maven.plugin.pom.enforcer.rules;
+
+/**
+ * Optional extension for rules whose analysis can share a single tree walk with other rules.
+ * {@link RuleRegistry#analyzeAll} walks the document once and dispatches every element to the
+ * visitors of all participating rules; rules without this extension keep running
+ * {@link #analyze} on their own.
+ *
+ * <p>Design contract: the visitor MUST collect the same violations as {@code analyze()}.
+ */
+public interface VisitingRule extends PomRule {
+
+    /**
+     * Creates a single-use visitor collecting this rule's violations for one document.
+     */
+    ElementVisitor newVisitor();
+}
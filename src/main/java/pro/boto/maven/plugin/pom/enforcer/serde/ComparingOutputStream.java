@@ -0,0 +1,78 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Sink that checks written bytes against an expected buffer instead of storing them.
+ * Aborts the writer with {@link MismatchException} on the first differing byte.
+ */
+final class ComparingOutputStream extends OutputStream {
+
+    private final byte[] expected;
+    private int position;
+
+    ComparingOutputStream(byte[] expected) {
+        this.expected = expected;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (position >= expected.length || expected[position] != (byte) b) {
+            throw new MismatchException(position);
+        }
+        position++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int comparable = Math.min(len, expected.length - position);
+        int mismatch = Arrays.mismatch(b, off, off + comparable, expected, position, position + comparable);
+        if (mismatch >= 0) {
+            throw new MismatchException(position + mismatch);
+        }
+        if (comparable < len) {
+            throw new MismatchException(expected.length);
+        }
+        position += len;
+    }
+
+    /**
+     * Returns the first divergence, or {@code null} if everything written so far
+     * matched and covered the whole expected buffer.
+     */
+    FormattingMismatch finish() {
+        return position == expected.length ? null : mismatchAt(position);
+    }
+
+    FormattingMismatch mismatchAt(int offset) {
+        int line = 1;
+        for (int i = 0; i < offset; i++) {
+            if (expected[i] == '\n') line++;
+        }
+        return new FormattingMismatch(offset, line);
+    }
+
+    /**
+     * Thrown through the serializer to stop it at the first mismatch. Carries no stack trace.
+     */
+    static final class MismatchException extends IOException {
+
+        private final int offset;
+
+        MismatchException(int offset) {
+            super("Output diverges at byte " + offset, null);
+            this.offset = offset;
+        }
+
+        int offset() {
+            return offset;
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
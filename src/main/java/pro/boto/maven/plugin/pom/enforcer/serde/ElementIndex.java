@@ -0,0 +1,48 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+import org.jdom2.Document;
+import org.jdom2.Element;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Document-order position of every element, captured before rules reorder the tree.
+ * Lets {@link PomSerde#patch} map reordered elements back to their source bytes.
+ */
+public final class ElementIndex {
+
+    private final Map<Element, Integer> ordinals = new IdentityHashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    private ElementIndex() {}
+
+    static ElementIndex of(Document document) {
+        ElementIndex index = new ElementIndex();
+        index.add(document.getRootElement());
+        return index;
+    }
+
+    private void add(Element element) {
+        ordinals.put(element, names.size());
+        names.add(element.getQualifiedName());
+        for (Element child : element.getChildren()) {
+            add(child);
+        }
+    }
+
+    int ordinal(Element element) {
+        Integer ordinal = ordinals.get(element);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    String name(int ordinal) {
+        return names.get(ordinal);
+    }
+
+    int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,149 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * Reusable serialization sink: encodes the characters written by the serializer chunk by chunk
+ * into a byte array that is kept for the next document. Only that array grows with the
+ * document; characters are staged in a fixed chunk until it fills up.
+ * Not thread-safe; {@link PomSerde} keeps one per thread.
+ */
+final class EncodeBuffer extends Writer {
+
+    private static final int CHUNK = 8 * 1024;
+    private static final int MIN_CAPACITY = 8 * 1024;
+    // Larger arrays are not kept for smaller documents, so one huge POM does not pin memory per thread
+    private static final int MAX_RETAINED = 1024 * 1024;
+
+    private final char[] chars = new char[CHUNK];
+    private final CharBuffer pending = CharBuffer.wrap(chars);
+    private int length;
+    private byte[] bytes = new byte[MIN_CAPACITY];
+    private ByteBuffer out = ByteBuffer.wrap(bytes);
+    private CharsetEncoder encoder;
+
+    /**
+     * Empties the buffer and sizes it for a document of about {@code expectedLength} bytes
+     * encoded with {@code charset}.
+     */
+    void reset(int expectedLength, Charset charset) {
+        length = 0;
+        bytes = resize(bytes, expectedLength);
+        out = ByteBuffer.wrap(bytes);
+        encoder = encoderFor(charset);
+    }
+
+    /**
+     * Encodes the remaining characters. The result shares this buffer's storage and is only
+     * valid until the next {@link #reset(int, Charset)}.
+     */
+    SerializedPom finish() {
+        encodePending(true);
+        while (encoder.flush(out).isOverflow()) {
+            growBytes();
+        }
+        return new SerializedPom(bytes, out.position());
+    }
+
+    // ---- WRITER ----
+
+    @Override
+    public void write(int c) {
+        if (length == CHUNK) {
+            encodePending(false);
+        }
+        chars[length++] = (char) c;
+    }
+
+    @Override
+    public void write(char[] source, int offset, int count) {
+        while (count > 0) {
+            if (length == CHUNK) {
+                encodePending(false);
+            }
+            int copied = Math.min(count, CHUNK - length);
+            System.arraycopy(source, offset, chars, length, copied);
+            length += copied;
+            offset += copied;
+            count -= copied;
+        }
+    }
+
+    @Override
+    public void write(String source, int offset, int count) {
+        while (count > 0) {
+            if (length == CHUNK) {
+                encodePending(false);
+            }
+            int copied = Math.min(count, CHUNK - length);
+            source.getChars(offset, offset + copied, chars, length);
+            length += copied;
+            offset += copied;
+            count -= copied;
+        }
+    }
+
+    @Override
+    public void flush() {
+        // characters are encoded once a chunk fills up or the document is finished
+    }
+
+    @Override
+    public void close() {
+        // kept open for the next document
+    }
+
+    /**
+     * Encodes the staged characters. Unless this is the end of the input, a trailing high
+     * surrogate is kept at the start of the chunk until its low surrogate arrives.
+     */
+    private void encodePending(boolean endOfInput) {
+        pending.limit(length).position(0);
+        while (true) {
+            CoderResult result = encoder.encode(pending, out, endOfInput);
+            if (result.isUnderflow()) {
+                break;
+            }
+            // Errors are replaced, so the only other outcome is running out of room
+            growBytes();
+        }
+        int remaining = pending.remaining();
+        System.arraycopy(chars, pending.position(), chars, 0, remaining);
+        length = remaining;
+    }
+
+    private void growBytes() {
+        bytes = Arrays.copyOf(bytes, grow(bytes.length, out.position() + 1));
+        out = ByteBuffer.wrap(bytes).position(out.position());
+    }
+
+    private CharsetEncoder encoderFor(Charset charset) {
+        if (encoder == null || !encoder.charset().equals(charset)) {
+            // Same replacement behavior as the OutputStreamWriter the outputter would otherwise create
+            return charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        return encoder.reset();
+    }
+
+    private static int grow(int capacity, int required) {
+        return Math.max(required, capacity + (capacity >> 1));
+    }
+
+    /**
+     * Leaves room for the indentation serialization adds, and drops oversized arrays.
+     */
+    private static byte[] resize(byte[] array, int expectedLength) {
+        int capacity = (int)
+                Math.min(Integer.MAX_VALUE - 8, Math.max(MIN_CAPACITY, expectedLength + (long) (expectedLength >> 3)));
+        return array.length < capacity || array.length > Math.max(capacity, MAX_RETAINED) ? new byte[capacity] : array;
+    }
+}
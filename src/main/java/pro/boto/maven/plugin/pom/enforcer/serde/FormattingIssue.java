@@ -0,0 +1,31 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+/**
+ * A single line of a file that differs from its formatted form, as found by {@link PomSerde#lint}.
+ */
+public final class FormattingIssue {
+
+    private final int line;
+    private final String message;
+
+    FormattingIssue(int line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    /**
+     * One-based line number.
+     */
+    public int line() {
+        return line;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "line " + line + ": " + message;
+    }
+}
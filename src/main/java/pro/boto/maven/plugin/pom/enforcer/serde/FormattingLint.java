@@ -0,0 +1,40 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of {@link PomSerde#lint}: the lines that differ from the formatted form, and whether
+ * finding none proves the file is already formatted.
+ */
+public final class FormattingLint {
+
+    static final FormattingLint INCONCLUSIVE = new FormattingLint(Collections.emptyList(), false);
+
+    private final List<FormattingIssue> issues;
+    private final boolean conclusive;
+
+    FormattingLint(List<FormattingIssue> issues, boolean conclusive) {
+        this.issues = Collections.unmodifiableList(issues);
+        this.conclusive = conclusive;
+    }
+
+    /**
+     * At most one issue per line, in line order. Each one is a difference serialization would fix.
+     */
+    public List<FormattingIssue> issues() {
+        return issues;
+    }
+
+    public boolean hasIssues() {
+        return !issues.isEmpty();
+    }
+
+    /**
+     * Whether the file only uses constructs the linter fully models, so that no issues means
+     * serialization would reproduce it byte for byte. Otherwise only {@link PomSerde#compare} can tell.
+     */
+    public boolean isConclusive() {
+        return conclusive;
+    }
+}
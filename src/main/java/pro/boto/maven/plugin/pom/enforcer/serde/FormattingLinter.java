@@ -0,0 +1,587 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
+import pro.boto.maven.plugin.pom.enforcer.format.SchemaLocationPolicy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Checks the layout of a POM against {@link FormattingConfig} in one scan of its raw bytes,
+ * without parsing or serializing it.
+ *
+ * <p>The scan follows the pretty layout of {@link PomOutputProcessor}: the XML declaration, then
+ * one element or comment per line indented by depth, text-only elements on a single line with
+ * their text trimmed, empty elements as {@code <a/>} and a line separator after the root.
+ * Every deviation it reports is one serialization would fix. Constructs whose serialized form it
+ * does not model exactly (entities, CDATA, DOCTYPE, processing instructions, mixed content,
+ * characters outside the BMP, encodings other than UTF-8) make the result inconclusive, and the
+ * ones that change the layout itself make it give up without reporting anything.
+ */
+final class FormattingLinter {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte CONTAINER = 1;
+    private static final byte TEXT = 2;
+
+    /** Width of {@code "<project"}: following root attributes align with the first one. */
+    private static final int ROOT_ATTRIBUTE_INDENT = 9;
+
+    private final byte[] source;
+    private final byte[] separator;
+    private final int indentSize;
+    private final boolean indentRootAttributes;
+    private final String declaration;
+
+    private final List<FormattingIssue> issues = new ArrayList<>();
+    private final BitSet reportedLines = new BitSet();
+    private boolean conclusive = true;
+    private boolean abandoned;
+
+    private int lineCursor;
+    private int lineAtCursor = 1;
+
+    private int pos;
+    private boolean lineOpen;
+    private boolean rootSeen;
+    private int depth;
+    private int[] starts = new int[16];
+    private int[] nameEnds = new int[16];
+    private byte[] modes = new byte[16];
+
+    private FormattingLinter(byte[] source, FormattingConfig config) {
+        this.source = source;
+        this.separator = config.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+        this.indentSize = config.indentSize();
+        this.indentRootAttributes = config.schemaLocation() == SchemaLocationPolicy.INDENTED;
+        this.declaration = "<?xml version=\"1.0\" encoding=\"" + config.encoding() + "\"?>";
+    }
+
+    static FormattingLint lint(byte[] source, FormattingConfig config) {
+        if (!isSupported(config) || !SourcePatcher.isAsciiCompatible(source)) {
+            return FormattingLint.INCONCLUSIVE;
+        }
+        FormattingLinter linter = new FormattingLinter(source, config);
+        linter.scan();
+        if (linter.abandoned) {
+            return FormattingLint.INCONCLUSIVE;
+        }
+        linter.issues.sort(Comparator.comparingInt(FormattingIssue::line));
+        return new FormattingLint(linter.issues, linter.conclusive);
+    }
+
+    private static boolean isSupported(FormattingConfig config) {
+        String lineSeparator = config.lineSeparator();
+        return StandardCharsets.UTF_8.name().equalsIgnoreCase(config.encoding())
+                && config.indentSize() > 0
+                && ("\n".equals(lineSeparator) || "\r\n".equals(lineSeparator) || "\r".equals(lineSeparator));
+    }
+
+    // ---- SCAN ----
+
+    private void scan() {
+        if (source.length >= 3 && source[0] == (byte) 0xEF && source[1] == (byte) 0xBB && source[2] == (byte) 0xBF) {
+            issue(0, "byte order mark at the start of the file");
+            pos = 3;
+        }
+        if (startsWith(pos, "<?xml") && pos + 5 < source.length && isWhitespace(source[pos + 5])) {
+            int end = skipPast(pos, "?>");
+            if (end < 0) {
+                abandon();
+                return;
+            }
+            if (!declaration.equals(text(pos, end))) {
+                issue(pos, "XML declaration should be " + declaration);
+            }
+            pos = end;
+            lineOpen = true;
+        } else {
+            issue(pos, "missing XML declaration " + declaration);
+        }
+
+        while (!abandoned) {
+            int markup = indexOf(pos, (byte) '<');
+            int runEnd = markup < 0 ? source.length : markup;
+            int layoutFrom = pos;
+            if (!isBlank(pos, runEnd)) {
+                textContent(pos, runEnd);
+                layoutFrom = runEnd;
+            }
+            if (markup < 0) {
+                end(layoutFrom);
+                return;
+            }
+            pos = markup;
+            markup(layoutFrom, markup);
+        }
+    }
+
+    private void markup(int layoutFrom, int at) {
+        if (startsWith(at, "<!--")) {
+            int end = skipPast(at + 4, "-->");
+            if (end < 0) {
+                abandon();
+                return;
+            }
+            child(layoutFrom, at);
+            comment(at + 4, end - 3);
+            pos = end;
+        } else if (startsWith(at, "</")) {
+            endTag(layoutFrom, at);
+        } else if (startsWith(at, "<!") || startsWith(at, "<?")) {
+            // CDATA, DOCTYPE and processing instructions keep their own layout
+            abandon();
+        } else {
+            startTag(layoutFrom, at);
+        }
+    }
+
+    /**
+     * Checks the whitespace before an element or comment, which must start its own line.
+     */
+    private void child(int layoutFrom, int at) {
+        if (depth == 0) {
+            if (lineOpen) {
+                layout(layoutFrom, at, 0);
+            }
+            lineOpen = true;
+            return;
+        }
+        switch (modes[depth - 1]) {
+            case UNKNOWN:
+                modes[depth - 1] = CONTAINER;
+                layout(layoutFrom, at, depth * indentSize);
+                break;
+            case CONTAINER:
+                layout(layoutFrom, at, depth * indentSize);
+                break;
+            default:
+                // Mixed content is laid out item by item
+                abandon();
+                break;
+        }
+    }
+
+    private void startTag(int layoutFrom, int at) {
+        int nameEnd = nameEnd(at + 1);
+        if (nameEnd == at + 1 || (depth == 0 && rootSeen)) {
+            abandon();
+            return;
+        }
+        child(layoutFrom, at);
+        boolean root = depth == 0;
+        rootSeen |= root;
+
+        boolean selfClosing = attributes(at, nameEnd, root);
+        if (abandoned || selfClosing) {
+            return;
+        }
+        if (depth == starts.length) {
+            starts = Arrays.copyOf(starts, depth * 2);
+            nameEnds = Arrays.copyOf(nameEnds, depth * 2);
+            modes = Arrays.copyOf(modes, depth * 2);
+        }
+        starts[depth] = at;
+        nameEnds[depth] = nameEnd;
+        modes[depth] = UNKNOWN;
+        depth++;
+    }
+
+    /**
+     * Checks the attributes of the start tag at {@code at} and moves past it.
+     *
+     * @return whether the tag closes the element
+     */
+    private boolean attributes(int at, int nameEnd, boolean root) {
+        String ownDeclaration = null;
+        boolean alignAttributes = false;
+        if (root) {
+            String name = text(at + 1, nameEnd);
+            int colon = name.indexOf(':');
+            ownDeclaration = colon < 0 ? "xmlns" : "xmlns:" + name.substring(0, colon);
+            alignAttributes = indentRootAttributes && "project".equals(name.substring(colon + 1));
+        }
+        boolean attributeSeen = false;
+
+        int i = nameEnd;
+        for (int index = 0; ; index++) {
+            int separatorStart = i;
+            i = skipWhitespace(i);
+            if (i >= source.length) {
+                abandon();
+                return false;
+            }
+            boolean selfClosing = source[i] == '/' && i + 1 < source.length && source[i + 1] == '>';
+            if (selfClosing || source[i] == '>') {
+                if (i > separatorStart) {
+                    issue(separatorStart, "whitespace before the end of " + subject(at));
+                }
+                pos = i + (selfClosing ? 2 : 1);
+                return selfClosing;
+            }
+
+            int attributeEnd = attributeNameEnd(i);
+            if (i == separatorStart || attributeEnd == i || isName(i, attributeEnd, "xml:space")) {
+                // Preserved whitespace is not reformatted
+                abandon();
+                return false;
+            }
+            boolean namespace = isName(i, attributeEnd, "xmlns") || startsWith(i, "xmlns:");
+
+            // The serializer prints the own namespace first, then other declarations, then attributes
+            if (namespace && (!root || attributeSeen || (index > 0 && isName(i, attributeEnd, ownDeclaration)))) {
+                conclusive = false;
+            }
+            attributeSeen |= !namespace;
+
+            if (alignAttributes && (index > 0 || !namespace)) {
+                layout(separatorStart, i, ROOT_ATTRIBUTE_INDENT);
+            } else if (i - separatorStart != 1 || source[separatorStart] != ' ') {
+                issue(i, subject(i) + " of " + subject(at) + " should follow a single space");
+            }
+
+            int equals = skipWhitespace(attributeEnd);
+            int quote = equals < source.length ? skipWhitespace(equals + 1) : equals;
+            if (quote >= source.length || source[equals] != '=') {
+                abandon();
+                return false;
+            }
+            if (equals > attributeEnd || quote > equals + 1) {
+                issue(attributeEnd, "whitespace around '=' in " + subject(i) + " of " + subject(at));
+            }
+            byte quoteChar = source[quote];
+            int valueEnd = quoteChar == '"' || quoteChar == '\'' ? indexOf(quote + 1, quoteChar) : -1;
+            if (valueEnd < 0) {
+                abandon();
+                return false;
+            }
+            if (quoteChar != '"' || (namespace && valueEnd == quote + 1)) {
+                conclusive = false;
+            }
+            attributeValue(quote + 1, valueEnd);
+            i = valueEnd + 1;
+        }
+    }
+
+    private void endTag(int layoutFrom, int at) {
+        int nameEnd = nameEnd(at + 2);
+        int close = skipWhitespace(nameEnd);
+        if (depth == 0 || close >= source.length || source[close] != '>') {
+            abandon();
+            return;
+        }
+        int start = starts[depth - 1];
+        if (!Arrays.equals(source, at + 2, nameEnd, source, start + 1, nameEnds[depth - 1])) {
+            abandon();
+            return;
+        }
+        if (close > nameEnd) {
+            issue(nameEnd, "whitespace in end tag " + subject(at));
+        }
+        switch (modes[depth - 1]) {
+            case UNKNOWN:
+                String name = text(start + 1, nameEnds[depth - 1]);
+                issue(start, "empty element <" + name + "> should be written as <" + name + "/>");
+                break;
+            case CONTAINER:
+                layout(layoutFrom, at, (depth - 1) * indentSize);
+                break;
+            default:
+                // Whitespace after the text was reported with it
+                break;
+        }
+        depth--;
+        pos = close + 1;
+    }
+
+    private void textContent(int from, int to) {
+        if (depth == 0 || modes[depth - 1] != UNKNOWN) {
+            // Text outside the root, or mixed with other content
+            abandon();
+            return;
+        }
+        modes[depth - 1] = TEXT;
+        int first = skipWhitespace(from);
+        int last = to;
+        while (last > first && isWhitespace(source[last - 1])) {
+            last--;
+        }
+        if (first > from) {
+            issue(from, "whitespace before the text of " + subject(starts[depth - 1]));
+        }
+        if (last < to) {
+            issue(last, "whitespace after the text of " + subject(starts[depth - 1]));
+        }
+
+        // Inner line breaks are written with the configured separator, entities are re-escaped
+        for (int i = first; i < last; i++) {
+            byte b = source[i];
+            if (b == '\r' || b == '\n') {
+                int breakEnd = lineBreakEnd(i);
+                conclusive &= isSeparator(i, breakEnd);
+                i = breakEnd - 1;
+            } else if (b == '>' || isOutsideBmp(b) || (b == '&' && !isEntity(i, "amp;", "lt;", "gt;"))) {
+                conclusive = false;
+            }
+        }
+    }
+
+    /**
+     * Comments are written verbatim, with the line breaks the parser normalized to LF.
+     */
+    private void comment(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (source[i] == '\r' || (source[i] == '\n' && !isSeparator(i, i + 1)) || isOutsideBmp(source[i])) {
+                conclusive = false;
+            }
+        }
+    }
+
+    private void attributeValue(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = source[i];
+            if (b == '>'
+                    || b == '\t'
+                    || b == '\n'
+                    || b == '\r'
+                    || isOutsideBmp(b)
+                    || (b == '&' && !isEntity(i, "amp;", "lt;", "gt;", "quot;"))) {
+                conclusive = false;
+            }
+        }
+    }
+
+    /**
+     * After the root, only a line separator may follow.
+     */
+    private void end(int from) {
+        if (depth > 0 || !rootSeen) {
+            abandon();
+            return;
+        }
+        int lineEnd = lineEnd(from, source.length);
+        if (lineEnd == source.length) {
+            issue(Math.max(0, source.length - 1), "missing line separator at the end of the file");
+            return;
+        }
+        if (lineEnd > from) {
+            issue(from, "trailing whitespace");
+        }
+        int breakEnd = lineBreakEnd(lineEnd);
+        if (!isSeparator(lineEnd, breakEnd)) {
+            issue(lineEnd, separatorMismatch(lineEnd, breakEnd));
+        }
+        if (breakEnd < source.length) {
+            issue(breakEnd, "blank line at the end of the file");
+        }
+    }
+
+    // ---- LAYOUT ----
+
+    /**
+     * Checks that the whitespace in {@code [from, to)} is exactly one line separator followed by
+     * {@code indent} spaces, reporting each line that differs. {@code to} is where the markup
+     * that must start the line begins.
+     */
+    private void layout(int from, int to, int indent) {
+        int lineEnd = lineEnd(from, to);
+        if (lineEnd == to) {
+            issue(to, subject(to) + " should start on its own line");
+            return;
+        }
+        if (lineEnd > from) {
+            issue(from, "trailing whitespace");
+        }
+        int lineStart = lineEnd;
+        while (true) {
+            int breakEnd = lineBreakEnd(lineStart);
+            if (!isSeparator(lineStart, breakEnd)) {
+                issue(lineStart, separatorMismatch(lineStart, breakEnd));
+            }
+            int next = lineEnd(breakEnd, to);
+            if (next == to) {
+                indentation(breakEnd, to, indent);
+                return;
+            }
+            issue(breakEnd, "blank line");
+            lineStart = next;
+        }
+    }
+
+    private void indentation(int from, int to, int indent) {
+        for (int i = from; i < to; i++) {
+            if (source[i] == '\t') {
+                issue(from, subject(to) + " is indented with tabs instead of " + indent + " spaces");
+                return;
+            }
+        }
+        if (to - from != indent) {
+            issue(from, subject(to) + " is indented by " + (to - from) + " spaces instead of " + indent);
+        }
+    }
+
+    /**
+     * Describes the markup at {@code at} for messages, only once an issue is found.
+     */
+    private String subject(int at) {
+        if (startsWith(at, "<!--")) {
+            return "comment";
+        }
+        if (startsWith(at, "</")) {
+            return "</" + text(at + 2, nameEnd(at + 2)) + ">";
+        }
+        if (source[at] == '<') {
+            return "<" + text(at + 1, nameEnd(at + 1)) + ">";
+        }
+        return "attribute " + text(at, attributeNameEnd(at));
+    }
+
+    private String separatorMismatch(int from, int to) {
+        return describe(Arrays.copyOfRange(source, from, to)) + " line separator instead of " + describe(separator);
+    }
+
+    private static String describe(byte[] lineBreak) {
+        return new String(lineBreak, StandardCharsets.US_ASCII)
+                .replace("\r", "CR")
+                .replace("\n", "LF");
+    }
+
+    // ---- RESULT ----
+
+    private void issue(int offset, String message) {
+        int line = lineAt(offset);
+        if (!reportedLines.get(line)) {
+            reportedLines.set(line);
+            issues.add(new FormattingIssue(line, message));
+        }
+    }
+
+    private void abandon() {
+        abandoned = true;
+        conclusive = false;
+    }
+
+    /**
+     * Line of {@code offset}, counted from the last lookup since issues arrive mostly in order.
+     */
+    private int lineAt(int offset) {
+        while (lineCursor < offset) {
+            if (source[lineCursor++] == '\n') lineAtCursor++;
+        }
+        while (lineCursor > offset) {
+            if (source[--lineCursor] == '\n') lineAtCursor--;
+        }
+        return lineAtCursor;
+    }
+
+    // ---- BYTES ----
+
+    private boolean isSeparator(int from, int to) {
+        return Arrays.equals(source, from, to, separator, 0, separator.length);
+    }
+
+    /**
+     * End of the line break starting at {@code pos}: CRLF counts as one.
+     */
+    private int lineBreakEnd(int pos) {
+        return source[pos] == '\r' && pos + 1 < source.length && source[pos + 1] == '\n' ? pos + 2 : pos + 1;
+    }
+
+    /**
+     * First line break in {@code [from, to)}, or {@code to}.
+     */
+    private int lineEnd(int from, int to) {
+        int i = from;
+        while (i < to && source[i] != '\r' && source[i] != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isWhitespace(source[i])) return false;
+        }
+        return true;
+    }
+
+    private int skipWhitespace(int pos) {
+        int i = pos;
+        while (i < source.length && isWhitespace(source[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    /**
+     * Lead byte of a four-byte UTF-8 sequence: the serializer escapes those characters.
+     */
+    private static boolean isOutsideBmp(byte b) {
+        return (b & 0xF8) == 0xF0;
+    }
+
+    private boolean isEntity(int ampersand, String... names) {
+        for (String name : names) {
+            if (startsWith(ampersand + 1, name)) return true;
+        }
+        return false;
+    }
+
+    private boolean isName(int from, int to, String name) {
+        return to - from == name.length() && startsWith(from, name);
+    }
+
+    private boolean startsWith(int pos, String prefix) {
+        if (pos + prefix.length() > source.length) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (source[pos + i] != (byte) prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private int skipPast(int pos, String terminator) {
+        for (int i = pos; i + terminator.length() <= source.length; i++) {
+            if (startsWith(i, terminator)) return i + terminator.length();
+        }
+        return -1;
+    }
+
+    private int indexOf(int pos, byte value) {
+        for (int i = pos; i < source.length; i++) {
+            if (source[i] == value) return i;
+        }
+        return -1;
+    }
+
+    private int nameEnd(int pos) {
+        int i = pos;
+        while (i < source.length) {
+            byte b = source[i];
+            if (isWhitespace(b) || b == '/' || b == '>') break;
+            i++;
+        }
+        return i;
+    }
+
+    private int attributeNameEnd(int pos) {
+        int i = pos;
+        while (i < source.length) {
+            byte b = source[i];
+            if (isWhitespace(b) || b == '=' || b == '/' || b == '>') break;
+            i++;
+        }
+        return i;
+    }
+
+    private String text(int from, int to) {
+        return new String(source, from, to - from, StandardCharsets.UTF_8);
+    }
+}
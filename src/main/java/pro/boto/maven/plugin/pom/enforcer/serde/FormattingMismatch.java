@@ -0,0 +1,34 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+/**
+ * Location of the first byte where a file diverges from its formatted form.
+ */
+public final class FormattingMismatch {
+
+    private final int offset;
+    private final int line;
+
+    FormattingMismatch(int offset, int line) {
+        this.offset = offset;
+        this.line = line;
+    }
+
+    /**
+     * Zero-based byte offset of the first differing byte.
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * One-based line number containing the first differing byte.
+     */
+    public int line() {
+        return line;
+    }
+
+    @Override
+    public String toString() {
+        return "line " + line + " (byte " + offset + ")";
+    }
+}
@@ -22,6 +22,10 @@ public class PomOutputProcessor extends AbstractXMLOutputProcessor {
         this.indentSchemaLocation = indentSchemaLocation;
     }
 
+    boolean indentsSchemaLocation() {
+        return indentSchemaLocation;
+    }
+
     @Override
     protected void printElement(Writer out, FormatStack fstack, NamespaceStack nstack, Element element)
             throws IOException {
@@ -35,29 +39,34 @@ public class PomOutputProcessor extends AbstractXMLOutputProcessor {
 
             if (content.isEmpty()) {
                 this.write(out, "/>");
-            } else {
-                this.write(out, ">");
+                return;
+            }
 
-                fstack.push();
-                try {
-                    Walker walker = this.buildWalker(fstack, content, true);
-                    if (walker.hasNext()) {
-                        if (!walker.isAllText()) {
-                            this.write(out, fstack.getPadBetween());
-                        }
-                        this.printContent(out, fstack, nstack, walker);
-                        if (!walker.isAllText()) {
-                            this.write(out, fstack.getPadLast());
-                        }
-                    }
-                } finally {
-                    fstack.pop();
+            fstack.push();
+            try {
+                Walker walker = this.buildWalker(fstack, content, true);
+                // Whitespace-only content trims to nothing: print it as an empty element so that
+                // re-reading the output yields the same serialization
+                if (!walker.hasNext()) {
+                    this.write(out, "/>");
+                    return;
                 }
 
-                this.write(out, "</");
-                this.write(out, element.getQualifiedName());
                 this.write(out, ">");
+                if (!walker.isAllText()) {
+                    this.write(out, fstack.getPadBetween());
+                }
+                this.printContent(out, fstack, nstack, walker);
+                if (!walker.isAllText()) {
+                    this.write(out, fstack.getPadLast());
+                }
+            } finally {
+                fstack.pop();
             }
+
+            this.write(out, "</");
+            this.write(out, element.getQualifiedName());
+            this.write(out, ">");
         } finally {
             nstack.pop();
         }
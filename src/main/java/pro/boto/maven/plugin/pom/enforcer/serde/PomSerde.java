@@ -4,19 +4,44 @@ import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
 
 import org.jdom2.Document;
 import org.jdom2.input.SAXBuilder;
+import org.jdom2.input.sax.XMLReaders;
 import org.jdom2.output.XMLOutputter;
+import org.xml.sax.InputSource;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 public class PomSerde {
 
+    // SAXBuilder is not thread-safe: keep one per thread for each whitespace mode
+    private static final ThreadLocal<SAXBuilder> BLANK_LINES_KEPT = ThreadLocal.withInitial(() -> newSaxBuilder(true));
+    private static final ThreadLocal<SAXBuilder> BLANK_LINES_IGNORED =
+            ThreadLocal.withInitial(() -> newSaxBuilder(false));
+    private static final ThreadLocal<XMLInputFactory> STREAM_FACTORY =
+            ThreadLocal.withInitial(PomSerde::newStreamFactory);
+    private static final ThreadLocal<EncodeBuffer> ENCODE_BUFFER = ThreadLocal.withInitial(EncodeBuffer::new);
+
     private final FormattingConfig config;
+    // Stateless once built, so one outputter serves every document and thread
+    private final XMLOutputter outputter;
+    // Fast path for serialize; the outputter covers the content it does not model
+    private final ThreadLocal<PomWriter> writer;
 
     public PomSerde(FormattingConfig config) {
         this.config = config;
+        PomOutputProcessor processor = config.buildOutputProcessor();
+        this.outputter = new XMLOutputter(config.buildFormat(), processor);
+        this.writer =
+                ThreadLocal.withInitial(() -> new PomWriter(outputter.getFormat(), processor.indentsSchemaLocation()));
     }
 
     public static PomSerde defaultConfig() {
@@ -27,26 +52,160 @@ public class PomSerde {
         return createSaxBuilder().build(pomFile);
     }
 
+    public Document deserialize(byte[] pomContent) throws Exception {
+        return createSaxBuilder().build(new ByteArrayInputStream(pomContent));
+    }
+
     public Document deserialize(Reader pomReader) throws Exception {
         return createSaxBuilder().build(pomReader);
     }
 
     private SAXBuilder createSaxBuilder() {
-        SAXBuilder builder = new SAXBuilder();
-        builder.setIgnoringBoundaryWhitespace(!config.keepBlankLines());
-        builder.setIgnoringElementContentWhitespace(!config.keepBlankLines());
+        return (config.keepBlankLines() ? BLANK_LINES_KEPT : BLANK_LINES_IGNORED).get();
+    }
+
+    /**
+     * Builds a parser that never leaves the machine: external DTDs, schemas and entities
+     * are not loaded, so a DOCTYPE cannot stall the build on network I/O.
+     * The underlying SAX parser is reused across documents.
+     */
+    private static SAXBuilder newSaxBuilder(boolean keepBlankLines) {
+        SAXBuilder builder = new SAXBuilder(XMLReaders.NONVALIDATING);
+        builder.setIgnoringBoundaryWhitespace(!keepBlankLines);
+        builder.setIgnoringElementContentWhitespace(!keepBlankLines);
+        builder.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        builder.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        builder.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        builder.setEntityResolver((publicId, systemId) -> new InputSource(new StringReader("")));
+        builder.setReuseParser(true);
         return builder;
     }
 
+    /**
+     * Feeds the element structure of {@code pomContent} to {@code handler} in a single forward
+     * pass, until the document ends or the handler reports it is done.
+     *
+     * @return {@code false} if the content could not be streamed (malformed XML or DTD entities);
+     *         callers should fall back to {@link #deserialize(byte[])}, which reports the error
+     */
+    public boolean stream(byte[] pomContent, PomStreamHandler handler) {
+        XMLStreamReader reader = null;
+        try {
+            reader = STREAM_FACTORY.get().createXMLStreamReader(new ByteArrayInputStream(pomContent));
+            while (reader.hasNext() && !handler.isDone()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        String namespaceUri = reader.getNamespaceURI();
+                        handler.startElement(namespaceUri != null ? namespaceUri : "", reader.getLocalName());
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        handler.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        handler.endElement();
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return true;
+        } catch (XMLStreamException e) {
+            return false;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // nothing left to release
+                }
+            }
+        }
+    }
+
     public byte[] serialize(Document document) {
+        return serialize(document, 0).toByteArray();
+    }
+
+    /**
+     * Serializes into a buffer owned by the calling thread and presized for about
+     * {@code expectedLength} bytes, typically the length of the file being rewritten.
+     * Repeated calls on the same thread reuse the buffer instead of allocating.
+     *
+     * @return a view of the serialized bytes, valid until this thread serializes again
+     */
+    public SerializedPom serialize(Document document, int expectedLength) {
+        EncodeBuffer buffer = ENCODE_BUFFER.get();
+        try {
+            Charset charset = Charset.forName(outputter.getFormat().getEncoding());
+            buffer.reset(expectedLength, charset);
+            if (!writer.get().write(document, buffer)) {
+                buffer.reset(expectedLength, charset);
+                outputter.output(document, buffer);
+            }
+            return buffer.finish();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException("Error during XML serialization", e);
+        }
+    }
+
+    /**
+     * Streams the serialized document against {@code expected} without materializing it,
+     * stopping at the first differing byte.
+     *
+     * @return {@code null} if serializing would reproduce {@code expected} exactly,
+     *         otherwise the location of the first divergence
+     */
+    public FormattingMismatch compare(Document document, byte[] expected) {
+        ComparingOutputStream output = new ComparingOutputStream(expected);
         try {
-            ByteArrayOutputStream output = new ByteArrayOutputStream();
-            XMLOutputter outputter = new XMLOutputter(config.buildOutputProcessor());
-            outputter.setFormat(config.buildFormat());
             outputter.output(document, output);
-            return output.toByteArray();
+        } catch (ComparingOutputStream.MismatchException e) {
+            return output.mismatchAt(e.offset());
         } catch (IOException e) {
             throw new RuntimeException("Error during XML serialization", e);
         }
+        return output.finish();
+    }
+
+    /**
+     * Checks the layout of {@code content} against the formatting settings in a single scan of
+     * the raw bytes, without parsing or serializing it. Rules are not applied, so the result only
+     * describes a full apply when the content already satisfies them.
+     */
+    public FormattingLint lint(byte[] content) {
+        return FormattingLinter.lint(content, config);
+    }
+
+    /**
+     * Captures the element positions of a freshly deserialized document, before any rule
+     * reorders it. Required by {@link #patch(byte[], Document, ElementIndex)}.
+     */
+    public ElementIndex index(Document document) {
+        return ElementIndex.of(document);
+    }
+
+    /**
+     * Rewrites {@code original} so that its elements follow the order of {@code reordered},
+     * copying every byte that did not move verbatim. Formatting settings are not applied.
+     *
+     * @return the patched content, or {@code null} if the source cannot be patched safely
+     *         (unusual encodings, mixed content around moved elements); callers should fall back
+     *         to {@link #serialize(Document)}
+     */
+    public byte[] patch(byte[] original, Document reordered, ElementIndex index) {
+        return SourcePatcher.patch(original, reordered.getRootElement(), index);
+    }
+
+    /**
+     * StAX counterpart of {@link #newSaxBuilder(boolean)}: DTDs and external entities are disabled.
+     */
+    private static XMLInputFactory newStreamFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
     }
 }
@@ -0,0 +1,32 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+/**
+ * Receives the element structure of a POM from {@link PomSerde#stream(byte[], PomStreamHandler)}
+ * in a single forward pass, without building a document tree.
+ */
+public interface PomStreamHandler {
+
+    /**
+     * Called for every start tag.
+     *
+     * @param namespaceUri namespace of the element, {@code ""} if none
+     * @param localName    element name without prefix
+     */
+    void startElement(String namespaceUri, String localName);
+
+    /**
+     * Called for text and CDATA directly inside the current element. May be called
+     * several times per element; the array is only valid during the call.
+     */
+    void characters(char[] text, int start, int length);
+
+    /**
+     * Called for every end tag.
+     */
+    void endElement();
+
+    /**
+     * Returns {@code true} once the handler needs no further events.
+     */
+    boolean isDone();
+}
@@ -0,0 +1,493 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+import org.jdom2.Attribute;
+import org.jdom2.Comment;
+import org.jdom2.Content;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+import org.jdom2.Verifier;
+import org.jdom2.output.EscapeStrategy;
+import org.jdom2.output.Format;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.xml.transform.Result;
+
+/**
+ * Writes a document exactly as {@link PomOutputProcessor} does with the pretty format built by
+ * {@code FormattingConfig}, walking element children directly instead of through JDOM's
+ * {@code Walker}s. Indentation is cached per depth and escaping is table-driven for ASCII.
+ *
+ * <p>Mixed content, entity references and the TrAX escaping instructions are not modeled:
+ * {@link #write} then returns {@code false} and the caller falls back to the JDOM outputter.
+ * Not thread-safe; {@link PomSerde} keeps one per thread.
+ */
+final class PomWriter {
+
+    private static final String ROOT_ATTRIBUTE_INDENT = " ".repeat(8);
+    // Marks an ASCII character the escape strategy itself wants escaped
+    private static final String DELEGATE = "";
+    private static final Comparator<Namespace> BY_PREFIX = Comparator.comparing(Namespace::getPrefix);
+    private static final String CDATA_START = "<![CDATA[";
+    private static final String CDATA_END = "]]>";
+
+    private final String encoding;
+    private final String indent;
+    private final String lineSeparator;
+    private final boolean specifiedAttributesOnly;
+    private final boolean indentSchemaLocation;
+    private final EscapeStrategy strategy;
+    private final String[] textEscapes = new String[128];
+    private final String[] attributeEscapes = new String[128];
+
+    // Line separator followed by the indentation of each depth
+    private String[] padding = new String[16];
+
+    // In-scope namespace bindings, innermost last
+    private Namespace[] bindings = new Namespace[8];
+    private int bindingCount;
+    private Namespace[] added = new Namespace[4];
+
+    PomWriter(Format format, boolean indentSchemaLocation) {
+        this.encoding = format.getEncoding();
+        this.indent = format.getIndent();
+        this.lineSeparator = format.getLineSeparator();
+        this.specifiedAttributesOnly = format.isSpecifiedAttributesOnly();
+        this.indentSchemaLocation = indentSchemaLocation;
+        this.strategy = format.getEscapeStrategy();
+        for (char c = 0; c < 128; c++) {
+            String escape = strategy.shouldEscape(c) ? DELEGATE : null;
+            textEscapes[c] = escape;
+            attributeEscapes[c] = escape;
+        }
+        textEscapes['<'] = "&lt;";
+        textEscapes['>'] = "&gt;";
+        textEscapes['&'] = "&amp;";
+        textEscapes['\r'] = "&#xD;";
+        textEscapes['\n'] = lineSeparator;
+        attributeEscapes['<'] = "&lt;";
+        attributeEscapes['>'] = "&gt;";
+        attributeEscapes['&'] = "&amp;";
+        attributeEscapes['\r'] = "&#xD;";
+        attributeEscapes['\n'] = "&#xA;";
+        attributeEscapes['"'] = "&quot;";
+        attributeEscapes['\t'] = "&#x9;";
+    }
+
+    /**
+     * @return {@code false} if the document uses constructs this writer does not model; whatever
+     *         was written to {@code out} must then be discarded
+     */
+    boolean write(Document document, Writer out) throws IOException {
+        if (!document.hasRootElement()) {
+            return false;
+        }
+        bindingCount = 0;
+        bind(Namespace.NO_NAMESPACE);
+        bind(Namespace.XML_NAMESPACE);
+        try {
+            out.write("<?xml version=\"1.0\" encoding=\"");
+            out.write(encoding);
+            out.write("\"?>");
+            out.write(lineSeparator);
+            boolean first = true;
+            for (Content content : document.getContent()) {
+                if (!first) {
+                    out.write(lineSeparator);
+                }
+                first = false;
+                switch (content.getCType()) {
+                    case Element:
+                        element(out, (Element) content, 0);
+                        break;
+                    case Comment:
+                        comment(out, (Comment) content);
+                        break;
+                    case ProcessingInstruction:
+                        processingInstruction(out, (ProcessingInstruction) content);
+                        break;
+                    case DocType:
+                        docType(out, (DocType) content);
+                        break;
+                    default:
+                        return false;
+                }
+            }
+            out.write(lineSeparator);
+            return true;
+        } catch (Unsupported e) {
+            return false;
+        }
+    }
+
+    // ---- ELEMENTS ----
+
+    private void element(Writer out, Element element, int depth) throws IOException {
+        int scope = bindingCount;
+        String name = element.getQualifiedName();
+        out.write('<');
+        out.write(name);
+        int addedCount = declare(element);
+        if (indentSchemaLocation && "project".equals(element.getName())) {
+            indentedRootAttributes(out, element, addedCount);
+        } else {
+            for (int i = 0; i < addedCount; i++) {
+                namespace(out, added[i]);
+            }
+            if (element.hasAttributes()) {
+                for (Attribute attribute : element.getAttributes()) {
+                    attribute(out, attribute);
+                }
+            }
+        }
+
+        List<Content> children = element.getContent();
+        if (children.isEmpty()) {
+            out.write("/>");
+        } else if (hasMarkup(children)) {
+            out.write('>');
+            String between = padding(depth + 1);
+            for (int i = 0, size = children.size(); i < size; i++) {
+                Content child = children.get(i);
+                switch (child.getCType()) {
+                    case Text:
+                        // Boundary whitespace, already checked by hasMarkup
+                        continue;
+                    case Element:
+                        out.write(between);
+                        element(out, (Element) child, depth + 1);
+                        break;
+                    case Comment:
+                        out.write(between);
+                        comment(out, (Comment) child);
+                        break;
+                    case ProcessingInstruction:
+                        out.write(between);
+                        processingInstruction(out, (ProcessingInstruction) child);
+                        break;
+                    default:
+                        throw Unsupported.INSTANCE;
+                }
+            }
+            out.write(padding(depth));
+            out.write("</");
+            out.write(name);
+            out.write('>');
+        } else {
+            textContent(out, children, name);
+        }
+        bindingCount = scope;
+    }
+
+    /**
+     * Mirrors {@code PomOutputProcessor.handleRootTagFormatting}: every declaration after the
+     * first and every attribute go on their own line, aligned under the first one.
+     */
+    private void indentedRootAttributes(Writer out, Element element, int addedCount) throws IOException {
+        for (int i = 0; i < addedCount; i++) {
+            if (i > 0) {
+                out.write(lineSeparator);
+                out.write(ROOT_ATTRIBUTE_INDENT);
+            }
+            namespace(out, added[i]);
+        }
+        if (element.hasAttributes()) {
+            for (Attribute attribute : element.getAttributes()) {
+                out.write(lineSeparator);
+                out.write(ROOT_ATTRIBUTE_INDENT);
+                if (attribute.isSpecified() || !specifiedAttributesOnly) {
+                    attribute(out, attribute);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the content holds elements, comments or instructions. If so, any text around them
+     * must be whitespace, which formatting drops; text or CDATA mixed with markup is not modeled.
+     */
+    private static boolean hasMarkup(List<Content> children) {
+        boolean markup = false;
+        boolean text = false;
+        for (int i = 0, size = children.size(); i < size; i++) {
+            Content child = children.get(i);
+            switch (child.getCType()) {
+                case Text:
+                    text |= !Verifier.isAllXMLWhitespace(((Text) child).getText());
+                    break;
+                case CDATA:
+                    text = true;
+                    break;
+                case Element:
+                case Comment:
+                case ProcessingInstruction:
+                    markup = true;
+                    break;
+                default:
+                    // Entity references only survive parsing when expansion is off
+                    throw Unsupported.INSTANCE;
+            }
+        }
+        if (markup && text) {
+            throw Unsupported.INSTANCE;
+        }
+        return markup;
+    }
+
+    /**
+     * Text-only content: whitespace-only nodes at both ends are dropped, then the first node is
+     * trimmed on the left and the last one on the right. Nothing left collapses to an empty tag.
+     */
+    private void textContent(Writer out, List<Content> children, String name) throws IOException {
+        int from = 0;
+        int to = children.size();
+        while (from < to && isBlank(children.get(from))) {
+            from++;
+        }
+        while (to > from && isBlank(children.get(to - 1))) {
+            to--;
+        }
+        if (from == to) {
+            out.write("/>");
+            return;
+        }
+        out.write('>');
+        for (int i = from; i < to; i++) {
+            Content child = children.get(i);
+            String value = child.getValue();
+            int start = i == from ? trimStart(value) : 0;
+            int end = i == to - 1 ? trimEnd(value) : value.length();
+            if (child.getCType() == Content.CType.CDATA) {
+                out.write(CDATA_START);
+                out.write(value, start, Math.max(start, end) - start);
+                out.write(CDATA_END);
+            } else if (start < end) {
+                escape(out, value, start, end, textEscapes, false);
+            }
+        }
+        out.write("</");
+        out.write(name);
+        out.write('>');
+    }
+
+    private static boolean isBlank(Content child) {
+        return Verifier.isAllXMLWhitespace(child.getValue());
+    }
+
+    private static int trimStart(String value) {
+        int start = 0;
+        while (start < value.length() && Verifier.isXMLWhitespace(value.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String value) {
+        int end = value.length();
+        while (end > 0 && Verifier.isXMLWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    // ---- OTHER CONTENT ----
+
+    private static void comment(Writer out, Comment comment) throws IOException {
+        out.write("<!--");
+        out.write(comment.getText());
+        out.write("-->");
+    }
+
+    private static void processingInstruction(Writer out, ProcessingInstruction instruction) throws IOException {
+        String target = instruction.getTarget();
+        if (Result.PI_DISABLE_OUTPUT_ESCAPING.equals(target) || Result.PI_ENABLE_OUTPUT_ESCAPING.equals(target)) {
+            throw Unsupported.INSTANCE;
+        }
+        String data = instruction.getData();
+        out.write("<?");
+        out.write(target);
+        if (!data.isEmpty()) {
+            out.write(' ');
+            out.write(data);
+        }
+        out.write("?>");
+    }
+
+    private void docType(Writer out, DocType docType) throws IOException {
+        out.write("<!DOCTYPE ");
+        out.write(docType.getElementName());
+        String publicId = docType.getPublicID();
+        String systemId = docType.getSystemID();
+        if (publicId != null) {
+            out.write(" PUBLIC \"");
+            out.write(publicId);
+            out.write('"');
+        }
+        if (systemId != null) {
+            out.write(publicId == null ? " SYSTEM \"" : " \"");
+            out.write(systemId);
+            out.write('"');
+        }
+        String internalSubset = docType.getInternalSubset();
+        if (internalSubset != null && !internalSubset.isEmpty()) {
+            out.write(" [");
+            out.write(lineSeparator);
+            out.write(internalSubset);
+            out.write(']');
+        }
+        out.write('>');
+    }
+
+    // ---- ATTRIBUTES AND NAMESPACES ----
+
+    private void attribute(Writer out, Attribute attribute) throws IOException {
+        out.write(' ');
+        out.write(attribute.getQualifiedName());
+        out.write("=\"");
+        String value = attribute.getValue();
+        escape(out, value, 0, value.length(), attributeEscapes, true);
+        out.write('"');
+    }
+
+    private void namespace(Writer out, Namespace namespace) throws IOException {
+        out.write(" xmlns");
+        if (!namespace.getPrefix().isEmpty()) {
+            out.write(':');
+            out.write(namespace.getPrefix());
+        }
+        out.write("=\"");
+        String uri = namespace.getURI();
+        escape(out, uri, 0, uri.length(), attributeEscapes, true);
+        out.write('"');
+    }
+
+    /**
+     * Binds the namespaces {@code element} brings into scope and collects them in {@link #added}
+     * in the order JDOM's {@code NamespaceStack} declares them: the element's own namespace
+     * first, then the others by prefix.
+     *
+     * @return the number of namespaces declared
+     */
+    private int declare(Element element) {
+        int count = 0;
+        Namespace own = element.getNamespace();
+        if (!isBound(own)) {
+            count = add(own, count);
+        }
+        if (element.hasAdditionalNamespaces()) {
+            for (Namespace namespace : element.getAdditionalNamespaces()) {
+                if (namespace != own && !isBound(namespace)) {
+                    count = add(namespace, count);
+                }
+            }
+        }
+        if (element.hasAttributes()) {
+            for (Attribute attribute : element.getAttributes()) {
+                Namespace namespace = attribute.getNamespace();
+                if (namespace != Namespace.NO_NAMESPACE && namespace != own && !isBound(namespace)) {
+                    count = add(namespace, count);
+                }
+            }
+        }
+        if (count > 1) {
+            int sortFrom = added[0] == own ? 1 : 0;
+            Arrays.sort(added, sortFrom, count, BY_PREFIX);
+        }
+        return count;
+    }
+
+    private int add(Namespace namespace, int count) {
+        if (count == added.length) {
+            added = Arrays.copyOf(added, count * 2);
+        }
+        added[count] = namespace;
+        bind(namespace);
+        return count + 1;
+    }
+
+    private boolean isBound(Namespace namespace) {
+        String prefix = namespace.getPrefix();
+        for (int i = bindingCount - 1; i >= 0; i--) {
+            if (bindings[i].getPrefix().equals(prefix)) {
+                return bindings[i].equals(namespace);
+            }
+        }
+        return false;
+    }
+
+    private void bind(Namespace namespace) {
+        if (bindingCount == bindings.length) {
+            bindings = Arrays.copyOf(bindings, bindingCount * 2);
+        }
+        bindings[bindingCount++] = namespace;
+    }
+
+    // ---- ESCAPING ----
+
+    /**
+     * Copies {@code value[start, end)} with the characters in {@code escapes} replaced. Anything
+     * else the escape strategy rejects, surrogate pairs included, is left to JDOM from there on.
+     */
+    private void escape(Writer out, String value, int start, int end, String[] escapes, boolean attribute)
+            throws IOException {
+        int run = start;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            String escape;
+            if (c < 128) {
+                escape = escapes[c];
+                if (escape == null) {
+                    continue;
+                }
+            } else if (strategy.shouldEscape(c)) {
+                escape = DELEGATE;
+            } else {
+                continue;
+            }
+            out.write(value, run, i - run);
+            if (escape == DELEGATE) {
+                String rest = value.substring(i, end);
+                out.write(
+                        attribute
+                                ? Format.escapeAttribute(strategy, rest)
+                                : Format.escapeText(strategy, lineSeparator, rest));
+                return;
+            }
+            out.write(escape);
+            run = i + 1;
+        }
+        out.write(value, run, end - run);
+    }
+
+    private String padding(int depth) {
+        if (depth >= padding.length) {
+            padding = Arrays.copyOf(padding, Math.max(depth + 1, padding.length * 2));
+        }
+        String pad = padding[depth];
+        if (pad == null) {
+            pad = lineSeparator + indent.repeat(depth);
+            padding[depth] = pad;
+        }
+        return pad;
+    }
+
+    /**
+     * Thrown out of the walk on unmodeled content. Carries no stack trace.
+     */
+    private static final class Unsupported extends RuntimeException {
+
+        static final Unsupported INSTANCE = new Unsupported();
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Serialized document as returned by {@link PomSerde#serialize(org.jdom2.Document, int)}.
+ * A view over a per-thread buffer: it is only valid until the same thread serializes again.
+ */
+public final class SerializedPom {
+
+    private final byte[] buffer;
+    private final int length;
+
+    SerializedPom(byte[] buffer, int length) {
+        this.buffer = buffer;
+        this.length = length;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public boolean contentEquals(byte[] content) {
+        return Arrays.equals(buffer, 0, length, content, 0, content.length);
+    }
+
+    /**
+     * Replaces the content of {@code target} straight from the buffer, without copying it.
+     */
+    public void writeTo(Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+                target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer content = ByteBuffer.wrap(buffer, 0, length);
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        }
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+}
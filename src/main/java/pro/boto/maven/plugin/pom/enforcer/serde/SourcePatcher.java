@@ -0,0 +1,328 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+import org.jdom2.Element;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Rewrites a POM by splicing byte ranges of the original file, so only reordered elements move.
+ *
+ * <p>A lightweight scan records where every element starts and ends. Each child carries the
+ * whitespace and comments preceding it plus comments trailing it on the same line, and subtrees
+ * whose order did not change are copied as a single range. Only ASCII-compatible encodings are
+ * supported; anything the scanner does not understand makes {@link #patch} give up so callers can
+ * fall back to full serialization.
+ *
+ * <p>The scan and the copy are both linear in the file size: patching saves the serialization
+ * and keeps the diff small, it does not limit the work to the moved bytes.
+ */
+final class SourcePatcher {
+
+    private final byte[] source;
+
+    private int count;
+    private int[] start = new int[64];
+    private int[] contentStart = new int[64];
+    private int[] end = new int[64];
+    private int[] parent = new int[64];
+    private int[] firstChild = new int[64];
+    private int[] lastChild = new int[64];
+    private int[] previousSibling = new int[64];
+    private int[] nextSibling = new int[64];
+    private String[] names = new String[64];
+
+    private boolean[] dirty;
+
+    private SourcePatcher(byte[] source) {
+        this.source = source;
+    }
+
+    /**
+     * @return the patched bytes, or {@code null} if the source cannot be patched safely
+     */
+    static byte[] patch(byte[] source, Element reorderedRoot, ElementIndex index) {
+        if (!isAsciiCompatible(source)) {
+            return null;
+        }
+        SourcePatcher patcher = new SourcePatcher(source);
+        if (!patcher.scan() || !patcher.matches(index)) {
+            return null;
+        }
+        patcher.dirty = new boolean[patcher.count];
+        if (patcher.markDirty(reorderedRoot, index) < 0) {
+            return null;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(source.length);
+        out.write(source, 0, patcher.start[0]);
+        if (!patcher.emit(0, reorderedRoot, index, out)) {
+            return null;
+        }
+        out.write(source, patcher.end[0], source.length - patcher.end[0]);
+        return out.toByteArray();
+    }
+
+    // ---- SCAN ----
+
+    private boolean scan() {
+        int[] stack = new int[32];
+        int depth = 0;
+        int pos = 0;
+
+        while (pos < source.length) {
+            if (source[pos] != '<') {
+                pos++;
+            } else if (startsWith(pos, "<!--")) {
+                pos = skipPast(pos + 4, "-->");
+            } else if (startsWith(pos, "<![CDATA[")) {
+                pos = skipPast(pos + 9, "]]>");
+            } else if (startsWith(pos, "<?")) {
+                pos = skipPast(pos + 2, "?>");
+            } else if (startsWith(pos, "<!")) {
+                pos = skipDeclaration(pos + 2);
+            } else if (startsWith(pos, "</")) {
+                int nameEnd = nameEnd(pos + 2);
+                int close = indexOf(nameEnd, (byte) '>');
+                if (depth == 0 || close < 0) return false;
+                int id = stack[--depth];
+                if (!names[id].equals(text(pos + 2, nameEnd))) return false;
+                end[id] = close + 1;
+                pos = close + 1;
+            } else {
+                int nameEnd = nameEnd(pos + 1);
+                int close = tagEnd(nameEnd);
+                if (close < 0 || (depth == 0 && count > 0)) return false;
+
+                int id = newElement(pos, text(pos + 1, nameEnd), depth > 0 ? stack[depth - 1] : -1);
+                contentStart[id] = close + 1;
+                if (source[close - 1] == '/') {
+                    end[id] = close + 1;
+                } else {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = id;
+                }
+                pos = close + 1;
+            }
+            if (pos < 0) return false;
+        }
+        return depth == 0 && count > 0;
+    }
+
+    private int newElement(int offset, String name, int parentId) {
+        if (count == start.length) {
+            int capacity = count * 2;
+            start = Arrays.copyOf(start, capacity);
+            contentStart = Arrays.copyOf(contentStart, capacity);
+            end = Arrays.copyOf(end, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            lastChild = Arrays.copyOf(lastChild, capacity);
+            previousSibling = Arrays.copyOf(previousSibling, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        int id = count++;
+        start[id] = offset;
+        names[id] = name;
+        parent[id] = parentId;
+        firstChild[id] = -1;
+        lastChild[id] = -1;
+        nextSibling[id] = -1;
+        previousSibling[id] = parentId >= 0 ? lastChild[parentId] : -1;
+        if (parentId >= 0) {
+            if (lastChild[parentId] < 0) {
+                firstChild[parentId] = id;
+            } else {
+                nextSibling[lastChild[parentId]] = id;
+            }
+            lastChild[parentId] = id;
+        }
+        return id;
+    }
+
+    private boolean matches(ElementIndex index) {
+        if (index.size() != count) return false;
+        for (int i = 0; i < count; i++) {
+            if (!names[i].equals(index.name(i))) return false;
+        }
+        return true;
+    }
+
+    // ---- PATCH ----
+
+    /**
+     * Flags every element whose children moved, or that contains such an element.
+     *
+     * @return the ordinal of {@code element}, or {@code -1} if the tree is not a reordering of the source
+     */
+    private int markDirty(Element element, ElementIndex index) {
+        int id = index.ordinal(element);
+        if (id < 0) return -1;
+
+        int expected = firstChild[id];
+        boolean changed = false;
+        for (Element child : element.getChildren()) {
+            int childId = markDirty(child, index);
+            if (childId < 0 || parent[childId] != id || expected < 0) return -1;
+            changed |= childId != expected || dirty[childId];
+            expected = nextSibling[expected];
+        }
+        if (expected >= 0) return -1;
+        dirty[id] = changed;
+        return id;
+    }
+
+    private boolean emit(int id, Element element, ElementIndex index, ByteArrayOutputStream out) {
+        if (!dirty[id]) {
+            out.write(source, start[id], end[id] - start[id]);
+            return true;
+        }
+
+        out.write(source, start[id], contentStart[id] - start[id]);
+        for (Element child : element.getChildren()) {
+            int childId = index.ordinal(child);
+            int previous = previousSibling[childId];
+            int leading = previous < 0 ? contentStart[id] : attachedEnd(previous);
+            if (!isTrivia(leading, start[childId])) return false;
+            out.write(source, leading, start[childId] - leading);
+            if (!emit(childId, child, index, out)) return false;
+            out.write(source, end[childId], attachedEnd(childId) - end[childId]);
+        }
+        int tail = attachedEnd(lastChild[id]);
+        out.write(source, tail, end[id] - tail);
+        return true;
+    }
+
+    /**
+     * End of an element including comments that follow it on the same line, which describe
+     * it and must move with it.
+     */
+    private int attachedEnd(int id) {
+        int attached = end[id];
+        int pos = attached;
+        while (pos < source.length) {
+            if (source[pos] == ' ' || source[pos] == '\t') {
+                pos++;
+            } else if (startsWith(pos, "<!--")) {
+                pos = skipPast(pos + 4, "-->");
+                if (pos < 0) break;
+                attached = pos;
+            } else {
+                break;
+            }
+        }
+        return attached;
+    }
+
+    /**
+     * Whitespace, comments and processing instructions only: safe to move along with an element.
+     */
+    private boolean isTrivia(int from, int to) {
+        int pos = from;
+        while (pos < to) {
+            byte b = source[pos];
+            if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                pos++;
+            } else if (startsWith(pos, "<!--")) {
+                pos = skipPast(pos + 4, "-->");
+            } else if (startsWith(pos, "<?")) {
+                pos = skipPast(pos + 2, "?>");
+            } else {
+                return false;
+            }
+            if (pos < 0) return false;
+        }
+        return true;
+    }
+
+    // ---- BYTES ----
+
+    static boolean isAsciiCompatible(byte[] source) {
+        if (source.length < 2) return true;
+        int first = source[0] & 0xFF;
+        int second = source[1] & 0xFF;
+        // UTF-16/32 byte order marks or a NUL byte next to '<'
+        return !(first == 0xFE && second == 0xFF) && !(first == 0xFF && second == 0xFE) && first != 0 && second != 0;
+    }
+
+    private boolean startsWith(int pos, String prefix) {
+        if (pos + prefix.length() > source.length) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (source[pos + i] != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private int skipPast(int pos, String terminator) {
+        for (int i = pos; i + terminator.length() <= source.length; i++) {
+            if (startsWith(i, terminator)) return i + terminator.length();
+        }
+        return -1;
+    }
+
+    private int indexOf(int pos, byte value) {
+        for (int i = pos; i < source.length; i++) {
+            if (source[i] == value) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Skips a DOCTYPE-like declaration, including an internal subset in brackets.
+     */
+    private int skipDeclaration(int pos) {
+        int brackets = 0;
+        byte quote = 0;
+        for (int i = pos; i < source.length; i++) {
+            byte b = source[i];
+            if (quote != 0) {
+                if (b == quote) quote = 0;
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '[') {
+                brackets++;
+            } else if (b == ']') {
+                brackets--;
+            } else if (b == '>' && brackets == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private int nameEnd(int pos) {
+        int i = pos;
+        while (i < source.length) {
+            byte b = source[i];
+            if (b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '/' || b == '>') break;
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Offset of the {@code >} closing a start tag, skipping quoted attribute values.
+     */
+    private int tagEnd(int pos) {
+        byte quote = 0;
+        for (int i = pos; i < source.length; i++) {
+            byte b = source[i];
+            if (quote != 0) {
+                if (b == quote) quote = 0;
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '>') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String text(int from, int to) {
+        return new String(source, from, to - from, StandardCharsets.UTF_8);
+    }
+}
@@ -1,9 +1,13 @@
 package pro.boto.maven.plugin.pom.enforcer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
+import pro.boto.maven.plugin.pom.enforcer.format.RewriteMode;
+import pro.boto.maven.plugin.pom.enforcer.metrics.EnforcerMetrics;
 import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.rules.DependencyOrderRule;
 import pro.boto.maven.plugin.pom.enforcer.rules.RuleRegistry;
 import pro.boto.maven.plugin.pom.enforcer.rules.TemplateOrderRule;
 
@@ -14,8 +18,12 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 class PomEnforcerTest {
 
@@ -71,4 +79,106 @@ class PomEnforcerTest {
 
         assertThat(enforcer.check(pomFile)).isEmpty();
     }
+
+    @Test
+    void checkOfContentShouldMatchCheckOfFile() throws Exception {
+        String messyXml = "<project><dependencies></dependencies>" + "<modelVersion>4.0.0</modelVersion></project>";
+        File pomFile = tempDir.resolve("pom.xml").toFile();
+        Files.write(pomFile.toPath(), messyXml.getBytes());
+
+        List<RuleViolation> fromContent = enforcer.check(messyXml.getBytes());
+
+        assertThat(fromContent)
+                .extracting(RuleViolation::toString)
+                .containsExactlyElementsOf(enforcer.check(pomFile).stream()
+                        .map(RuleViolation::toString)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void checkShouldReportTheLinesThatDifferFromFormatting() throws Exception {
+        String original = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<project>\n"
+                + "  <modelVersion>4.0.0</modelVersion>\n"
+                + "    <artifactId>app</artifactId>   \n"
+                + "  <version>1.0</version>\n"
+                + "</project>\n";
+
+        List<RuleViolation> violations = enforcer.check(original.getBytes());
+
+        assertThat(violations)
+                .extracting(RuleViolation::message)
+                .containsExactly("The file has inconsistent "
+                        + "indentation or whitespace. First difference at line 3: <modelVersion> is indented by 2 spaces "
+                        + "instead of 4. Also at lines 4, 5.");
+    }
+
+    @Test
+    void minimalApplyShouldKeepCommentsAndIndentation() throws Exception {
+        String messyXml = "<project>\n"
+                + "  <dependencies/> <!-- none yet -->\n"
+                + "  <modelVersion>4.0.0</modelVersion>\n"
+                + "</project>";
+        File pomFile = tempDir.resolve("pom.xml").toFile();
+        Files.write(pomFile.toPath(), messyXml.getBytes());
+
+        List<RuleViolation> violations = minimalEnforcer().apply(pomFile);
+
+        assertThat(violations).isNotEmpty();
+        assertThat(Files.readString(pomFile.toPath()))
+                .isEqualTo("<project>\n"
+                        + "  <modelVersion>4.0.0</modelVersion>\n"
+                        + "  <dependencies/> <!-- none yet -->\n"
+                        + "</project>");
+    }
+
+    @Test
+    void minimalCheckShouldIgnoreFormatting() throws Exception {
+        PomEnforcer minimal = minimalEnforcer();
+
+        assertThat(minimal.check("<project>  <modelVersion>4.0.0</modelVersion></project>".getBytes()))
+                .isEmpty();
+        assertThat(minimal.check("<project><dependencies/><modelVersion>4.0.0</modelVersion></project>".getBytes()))
+                .isNotEmpty();
+    }
+
+    @Test
+    void failFastCheckShouldReportOnlyTheFirstViolation() throws Exception {
+        // Unordered template and unordered dependencies, plus a formatting difference
+        String messyXml = "<project><dependencies>"
+                + "<dependency><groupId>z</groupId><artifactId>z</artifactId></dependency>"
+                + "<dependency><groupId>a</groupId><artifactId>a</artifactId></dependency>"
+                + "</dependencies><modelVersion>4.0.0</modelVersion></project>";
+        RuleRegistry registry = new RuleRegistry(Arrays.asList(new TemplateOrderRule(), new DependencyOrderRule()));
+        PomEnforcer failFast =
+                new PomEnforcer(FormattingConfig.defaultConfig(), registry, EnforcerMetrics.disabled(), true);
+
+        assertThat(failFast.check(messyXml.getBytes()))
+                .extracting(RuleViolation::ruleName)
+                .containsExactly("template-order");
+        assertThat(failFast.check("<project>  <modelVersion>4.0.0</modelVersion></project>".getBytes()))
+                .extracting(RuleViolation::ruleName)
+                .containsExactly("formatting");
+    }
+
+    @Test
+    void checkShouldGiveUpOnceStopped() throws Exception {
+        String messyXml = "<project><dependencies/><modelVersion>4.0.0</modelVersion></project>";
+        RuleRegistry registry = new RuleRegistry(Arrays.asList(new TemplateOrderRule(), new DependencyOrderRule()));
+        PomEnforcer failFast =
+                new PomEnforcer(FormattingConfig.defaultConfig(), registry, EnforcerMetrics.disabled(), true);
+        AtomicInteger polls = new AtomicInteger();
+
+        // Stops at the second boundary, after parsing: no rule has run yet
+        assertThatThrownBy(() -> failFast.check(null, messyXml.getBytes(), () -> polls.incrementAndGet() > 1))
+                .isInstanceOf(CancellationException.class);
+        assertThat(polls).hasValue(2);
+        assertThat(failFast.check(null, messyXml.getBytes(), () -> false)).isNotEmpty();
+    }
+
+    private static PomEnforcer minimalEnforcer() {
+        FormattingConfig config = FormattingConfig.defaultConfig();
+        config.setRewrite(RewriteMode.MINIMAL);
+        return new PomEnforcer(config, new RuleRegistry(Collections.singletonList(new TemplateOrderRule())));
+    }
 }
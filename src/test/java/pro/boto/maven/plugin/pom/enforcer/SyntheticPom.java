@@ -0,0 +1,179 @@
+package pro.boto.maven.plugin.pom.enforcer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates realistic, deliberately non-compliant POMs for benchmarks and scale tests.
+ *
+ * <p>Top-level sections are shuffled, dependencies are unsorted, BOM imports are mixed into
+ * {@code dependencyManagement} and the plugin configuration is nested {@code pluginDepth} levels
+ * deep. Output is deterministic for a given seed.
+ */
+public final class SyntheticPom {
+
+    private static final String[] SCOPES = {null, "test", "provided", "runtime"};
+
+    private int dependencies = 10;
+    private int boms = 1;
+    private int pluginDepth = 1;
+    private long seed = 42;
+    private String indent = "  ";
+    private String artifactId = "synthetic";
+    private String parentArtifactId;
+    private List<String> modules = Collections.emptyList();
+
+    public SyntheticPom withDependencies(int dependencies) {
+        this.dependencies = dependencies;
+        return this;
+    }
+
+    public SyntheticPom withBoms(int boms) {
+        this.boms = boms;
+        return this;
+    }
+
+    public SyntheticPom withPluginDepth(int pluginDepth) {
+        this.pluginDepth = pluginDepth;
+        return this;
+    }
+
+    public SyntheticPom withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /** Indentation unit, e.g. two spaces, four spaces or a tab. */
+    public SyntheticPom withIndent(String indent) {
+        this.indent = indent;
+        return this;
+    }
+
+    public SyntheticPom withArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+        return this;
+    }
+
+    public SyntheticPom withParent(String parentArtifactId) {
+        this.parentArtifactId = parentArtifactId;
+        return this;
+    }
+
+    public SyntheticPom withModules(List<String> modules) {
+        this.modules = modules;
+        return this;
+    }
+
+    public String build() {
+        Random random = new Random(seed);
+        List<String> sections = new ArrayList<>();
+        sections.add(line(1, "<modelVersion>4.0.0</modelVersion>"));
+        if (parentArtifactId != null) {
+            sections.add(line(1, "<parent>")
+                    + line(2, "<groupId>pro.boto.synthetic</groupId>")
+                    + line(2, "<artifactId>" + parentArtifactId + "</artifactId>")
+                    + line(2, "<version>1.0.0</version>")
+                    + line(1, "</parent>"));
+        }
+        sections.add(line(1, "<artifactId>" + artifactId + "</artifactId>"));
+        sections.add(line(1, "<groupId>pro.boto.synthetic</groupId>"));
+        sections.add(line(1, "<packaging>" + (modules.isEmpty() ? "jar" : "pom") + "</packaging>"));
+        sections.add(line(1, "<version>1.0.0</version>"));
+        if (!modules.isEmpty()) {
+            StringBuilder sb = new StringBuilder(line(1, "<modules>"));
+            for (String module : modules) {
+                sb.append(line(2, "<module>" + module + "</module>"));
+            }
+            sections.add(sb.append(line(1, "</modules>")).toString());
+        }
+        sections.add(line(1, "<properties>")
+                + line(2, "<project.build.sourceEncoding>UTF-8</project.build.sourceEncoding>")
+                + line(1, "</properties>"));
+        sections.add(dependencyManagement(random));
+        sections.add(dependencies(random));
+        sections.add(buildSection());
+        Collections.shuffle(sections, random);
+
+        StringBuilder sb = new StringBuilder(256 + dependencies * 220 + pluginDepth * 40);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\"")
+                .append(" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"")
+                .append(" xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0")
+                .append(" http://maven.apache.org/xsd/maven-4.0.0.xsd\">\n");
+        sections.forEach(sb::append);
+        return sb.append("</project>\n").toString();
+    }
+
+    public byte[] toBytes() {
+        return build().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String dependencyManagement(Random random) {
+        StringBuilder sb = new StringBuilder(line(1, "<dependencyManagement>")).append(line(2, "<dependencies>"));
+        List<String> entries = new ArrayList<>();
+        for (int i = 0; i < boms; i++) {
+            entries.add(line(3, "<dependency>")
+                    + line(4, "<groupId>org.bom" + random.nextInt(100) + "</groupId>")
+                    + line(4, "<artifactId>platform-bom</artifactId>")
+                    + line(4, "<version>1.0.0</version>")
+                    + line(4, "<type>pom</type>")
+                    + line(4, "<scope>import</scope>")
+                    + line(3, "</dependency>"));
+        }
+        entries.add(dependency(random, 3));
+        Collections.shuffle(entries, random);
+        entries.forEach(sb::append);
+        return sb.append(line(2, "</dependencies>"))
+                .append(line(1, "</dependencyManagement>"))
+                .toString();
+    }
+
+    private String dependencies(Random random) {
+        StringBuilder sb = new StringBuilder(line(1, "<dependencies>"));
+        for (int i = 0; i < dependencies; i++) {
+            sb.append(dependency(random, 2));
+        }
+        return sb.append(line(1, "</dependencies>")).toString();
+    }
+
+    private String dependency(Random random, int depth) {
+        int id = random.nextInt(Math.max(1, dependencies * 4));
+        String scope = SCOPES[random.nextInt(SCOPES.length)];
+        StringBuilder sb = new StringBuilder(line(depth, "<dependency>"))
+                .append(line(depth + 1, "<groupId>org.group" + id % 97 + "</groupId>"))
+                .append(line(depth + 1, "<artifactId>artifact-" + id + "</artifactId>"))
+                .append(line(depth + 1, "<version>1." + id % 13 + ".0</version>"));
+        if (scope != null) {
+            sb.append(line(depth + 1, "<scope>" + scope + "</scope>"));
+        }
+        return sb.append(line(depth, "</dependency>")).toString();
+    }
+
+    private String buildSection() {
+        StringBuilder sb = new StringBuilder(line(1, "<build>"))
+                .append(line(2, "<plugins>"))
+                .append(line(3, "<plugin>"))
+                .append(line(4, "<artifactId>maven-compiler-plugin</artifactId>"))
+                .append(line(4, "<groupId>org.apache.maven.plugins</groupId>"))
+                .append(line(4, "<configuration>"));
+        for (int level = 0; level < pluginDepth; level++) {
+            sb.append(line(5 + level, "<level" + level + ">"));
+        }
+        sb.append(line(5 + pluginDepth, "<value>true</value>"));
+        for (int level = pluginDepth - 1; level >= 0; level--) {
+            sb.append(line(5 + level, "</level" + level + ">"));
+        }
+        return sb.append(line(4, "</configuration>"))
+                .append(line(3, "</plugin>"))
+                .append(line(2, "</plugins>"))
+                .append(line(1, "</build>"))
+                .toString();
+    }
+
+    private String line(int depth, String content) {
+        return indent.repeat(depth) + content + "\n";
+    }
+}
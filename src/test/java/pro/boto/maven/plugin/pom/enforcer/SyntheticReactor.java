@@ -0,0 +1,91 @@
+package pro.boto.maven.plugin.pom.enforcer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes a multi-module reactor of {@link SyntheticPom}s to disk: one root aggregator, one
+ * aggregator per group of modules and the leaf modules below them. Each module gets its own
+ * seed, dependency count and indentation, so the tree mixes every kind of violation.
+ */
+public final class SyntheticReactor {
+
+    private static final String[] INDENTS = {"  ", "    ", "\t"};
+    private static final int MODULES_PER_GROUP = 50;
+
+    private int modules = 100;
+    private int maxDependencies = 60;
+    private long seed = 42;
+
+    public SyntheticReactor withModules(int modules) {
+        this.modules = modules;
+        return this;
+    }
+
+    public SyntheticReactor withMaxDependencies(int maxDependencies) {
+        this.maxDependencies = maxDependencies;
+        return this;
+    }
+
+    public SyntheticReactor withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Generates the reactor under {@code root}.
+     *
+     * @return every POM file, in reactor order (aggregators before their modules)
+     */
+    public List<File> writeTo(Path root) throws IOException {
+        Random random = new Random(seed);
+        List<File> pomFiles = new ArrayList<>();
+        int groups = (modules + MODULES_PER_GROUP - 1) / MODULES_PER_GROUP;
+
+        List<String> groupNames = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            groupNames.add(String.format("group-%03d", g));
+        }
+        pomFiles.add(write(root, pom(random, "reactor-root", null).withModules(groupNames)));
+
+        int module = 0;
+        for (String groupName : groupNames) {
+            Path groupDir = root.resolve(groupName);
+            List<String> moduleNames = new ArrayList<>();
+            for (int i = 0; i < MODULES_PER_GROUP && module < modules; i++, module++) {
+                moduleNames.add(String.format("module-%05d", module));
+            }
+            pomFiles.add(write(groupDir, pom(random, groupName, "reactor-root").withModules(moduleNames)));
+
+            for (String moduleName : moduleNames) {
+                SyntheticPom pom = pom(random, moduleName, groupName)
+                        .withDependencies(random.nextInt(maxDependencies + 1))
+                        .withPluginDepth(1 + random.nextInt(8));
+                pomFiles.add(write(groupDir.resolve(moduleName), pom));
+            }
+        }
+        return pomFiles;
+    }
+
+    private static SyntheticPom pom(Random random, String artifactId, String parent) {
+        return new SyntheticPom()
+                .withSeed(random.nextLong())
+                .withArtifactId(artifactId)
+                .withParent(parent)
+                .withDependencies(0)
+                .withBoms(random.nextInt(3))
+                .withIndent(INDENTS[random.nextInt(INDENTS.length)]);
+    }
+
+    private static File write(Path directory, SyntheticPom pom) throws IOException {
+        Files.createDirectories(directory);
+        Path pomFile = directory.resolve("pom.xml");
+        Files.write(pomFile, pom.toBytes());
+        return pomFile.toFile();
+    }
+}
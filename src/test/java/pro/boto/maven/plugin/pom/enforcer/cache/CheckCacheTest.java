@@ -0,0 +1,68 @@
+package pro.boto.maven.plugin.pom.enforcer.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+class CheckCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final File pomFile = new File("module/pom.xml");
+    private final String contentHash = CheckCache.hash("<project/>".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void cleanEntryShouldSurviveSaveAndLoad() throws Exception {
+        CheckCache cache = CheckCache.load(tempDir.toFile(), "config-a");
+        cache.record(pomFile, contentHash, true);
+        cache.save();
+
+        CheckCache reloaded = CheckCache.load(tempDir.toFile(), "config-a");
+
+        assertThat(reloaded.isClean(pomFile, contentHash)).isTrue();
+    }
+
+    @Test
+    void changedContentShouldNotBeClean() throws Exception {
+        CheckCache cache = CheckCache.load(tempDir.toFile(), "config-a");
+        cache.record(pomFile, contentHash, true);
+
+        String changedHash = CheckCache.hash("<project></project>".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(cache.isClean(pomFile, changedHash)).isFalse();
+    }
+
+    @Test
+    void violatingFileShouldDropPreviousEntry() {
+        CheckCache cache = CheckCache.load(tempDir.toFile(), "config-a");
+        cache.record(pomFile, contentHash, true);
+        cache.record(pomFile, contentHash, false);
+
+        assertThat(cache.isClean(pomFile, contentHash)).isFalse();
+    }
+
+    @Test
+    void differentFingerprintShouldInvalidateWholeCache() throws Exception {
+        CheckCache cache = CheckCache.load(tempDir.toFile(), "config-a");
+        cache.record(pomFile, contentHash, true);
+        cache.save();
+
+        CheckCache reloaded = CheckCache.load(tempDir.toFile(), "config-b");
+
+        assertThat(reloaded.isClean(pomFile, contentHash)).isFalse();
+    }
+
+    @Test
+    void fingerprintShouldDependOnEveryPart() {
+        assertThat(CheckCache.fingerprint("1.0", "indent=4", "rules"))
+                .isEqualTo(CheckCache.fingerprint("1.0", "indent=4", "rules"))
+                .isNotEqualTo(CheckCache.fingerprint("1.0", "indent=2", "rules"))
+                .isNotEqualTo(CheckCache.fingerprint("1.0", "indent=4rules", ""));
+    }
+}
@@ -0,0 +1,91 @@
+package pro.boto.maven.plugin.pom.enforcer.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import pro.boto.maven.plugin.pom.enforcer.SyntheticPom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class PomEnforcerCliTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Test
+    void checkShouldExitWithViolationsAndApplyShouldFixThem() throws Exception {
+        Path pom = Files.write(tempDir.resolve("pom.xml"), new SyntheticPom().toBytes());
+
+        assertThat(run(pom.toString())).isEqualTo(PomEnforcerCli.VIOLATIONS);
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("Violation in " + pom);
+
+        assertThat(run("--apply", pom.toString())).isEqualTo(PomEnforcerCli.OK);
+        assertThat(run(pom.toString())).isEqualTo(PomEnforcerCli.OK);
+    }
+
+    @Test
+    void configShouldUsePluginConfigurationBlocks() throws Exception {
+        Path pom = Files.write(tempDir.resolve("pom.xml"), new SyntheticPom().toBytes());
+        Path config = Files.writeString(
+                tempDir.resolve("pom-enforcer.xml"),
+                "<configuration>\n"
+                        + "    <formatting>\n"
+                        + "        <indentSize>2</indentSize>\n"
+                        + "        <schemaLocation>inline</schemaLocation>\n"
+                        + "    </formatting>\n"
+                        + "    <rules>\n"
+                        + "        <dependencyOrder>\n"
+                        + "            <bomFirst>false</bomFirst>\n"
+                        + "        </dependencyOrder>\n"
+                        + "    </rules>\n"
+                        + "</configuration>\n");
+
+        CliConfig cliConfig = CliConfig.read(config.toFile());
+        assertThat(cliConfig.formatting().indentSize()).isEqualTo(2);
+        assertThat(cliConfig.rules().getTemplateOrder()).isNull();
+        assertThat(cliConfig.rules().getDependencyOrder().isBomFirst()).isFalse();
+
+        assertThat(run("--config", config.toString(), "--apply", pom.toString()))
+                .isEqualTo(PomEnforcerCli.OK);
+        assertThat(Files.readString(pom)).contains("\n  <dependencies>");
+    }
+
+    @Test
+    void configShouldNotLoadExternalDtd() throws Exception {
+        Path config = Files.writeString(
+                tempDir.resolve("pom-enforcer.xml"),
+                "<!DOCTYPE configuration SYSTEM \"missing.dtd\">\n"
+                        + "<configuration><formatting><indentSize>2</indentSize></formatting></configuration>");
+
+        assertThat(CliConfig.read(config.toFile()).formatting().indentSize()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidArgumentsShouldExitWithError() throws Exception {
+        Path config = Files.writeString(
+                tempDir.resolve("pom-enforcer.xml"),
+                "<configuration><formatting><indent>2</indent></formatting></configuration>");
+
+        assertThat(run("--verbose")).isEqualTo(PomEnforcerCli.ERROR);
+        assertThat(run("--config")).isEqualTo(PomEnforcerCli.ERROR);
+        assertThat(run("--config", config.toString())).isEqualTo(PomEnforcerCli.ERROR);
+        assertThat(err.toString(StandardCharsets.UTF_8)).contains("Unknown parameter <indent> in <formatting>");
+        assertThat(run(tempDir.resolve("missing.xml").toString())).isEqualTo(PomEnforcerCli.ERROR);
+    }
+
+    private int run(String... args) {
+        return PomEnforcerCli.run(
+                args,
+                new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+}
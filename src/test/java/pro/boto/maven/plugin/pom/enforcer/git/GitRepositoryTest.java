@@ -0,0 +1,105 @@
+package pro.boto.maven.plugin.pom.enforcer.git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+class GitRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+
+    @BeforeEach
+    void initRepository() throws Exception {
+        root = tempDir.toRealPath();
+        write("pom.xml", "<project/>");
+        write("core/pom.xml", "<project/>");
+        write("api with space/pom.xml", "<project/>");
+        git("init", "-q");
+        git("add", ".");
+        git("commit", "-q", "-m", "initial");
+    }
+
+    @Test
+    void changedSinceShouldListModifiedAndUntrackedFiles() throws Exception {
+        write("core/pom.xml", "<project>modified</project>");
+        write("api with space/pom.xml", "<project>staged</project>");
+        git("add", "api with space/pom.xml");
+        write("new/pom.xml", "<project/>");
+
+        GitRepository repository = GitRepository.open(root.resolve("core"));
+
+        assertThat(repository.root()).isEqualTo(root);
+        assertThat(repository.changedSince("HEAD"))
+                .containsExactlyInAnyOrder(
+                        root.resolve("core/pom.xml"),
+                        root.resolve("api with space/pom.xml"),
+                        root.resolve("new/pom.xml"));
+    }
+
+    @Test
+    void stagedShouldReadIndexContentRatherThanWorkingTree() throws Exception {
+        write("api with space/pom.xml", "<project>staged</project>");
+        git("add", "api with space/pom.xml");
+        write("api with space/pom.xml", "<project>unstaged</project>");
+        write("core/pom.xml", "<project>unstaged</project>");
+
+        GitRepository repository = GitRepository.open(root);
+        Path staged = root.resolve("api with space/pom.xml");
+
+        assertThat(repository.staged()).containsExactly(staged);
+        Map<Path, byte[]> content = repository.stagedContent(List.of(staged, root.resolve("untracked/pom.xml")));
+        assertThat(content).containsOnlyKeys(staged);
+        assertThat(new String(content.get(staged), StandardCharsets.UTF_8)).isEqualTo("<project>staged</project>");
+    }
+
+    @Test
+    void unknownRefShouldFailWithGitMessage() throws Exception {
+        GitRepository repository = GitRepository.open(root);
+
+        assertThatThrownBy(() -> repository.changedSince("no-such-branch"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("git rev-parse")
+                .hasMessageContaining("no-such-branch");
+    }
+
+    @Test
+    void refStartingWithDashShouldBeRejectedBeforeRunningDiff() throws Exception {
+        GitRepository repository = GitRepository.open(root);
+        Path output = root.resolve("written.txt");
+
+        assertThatThrownBy(() -> repository.changedSince("--output=" + output))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid git ref");
+        assertThat(output).doesNotExist();
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void git(String... args) throws Exception {
+        List<String> command =
+                new ArrayList<>(List.of("git", "-c", "user.name=test", "-c", "user.email=test@example.com"));
+        command.addAll(Arrays.asList(args));
+        Process process =
+                new ProcessBuilder(command).directory(root.toFile()).inheritIO().start();
+        assertThat(process.waitFor()).isZero();
+    }
+}
@@ -0,0 +1,117 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import pro.boto.maven.plugin.pom.enforcer.PomEnforcer;
+import pro.boto.maven.plugin.pom.enforcer.SyntheticPom;
+import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
+import pro.boto.maven.plugin.pom.enforcer.rules.DependencyOrderRule;
+import pro.boto.maven.plugin.pom.enforcer.rules.RuleRegistry;
+import pro.boto.maven.plugin.pom.enforcer.rules.TemplateOrderRule;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+class EnforcerMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void checkShouldRecordPhasesAndRules() throws Exception {
+        EnforcerMetrics metrics = EnforcerMetrics.create(5);
+        PomEnforcer enforcer = newEnforcer(metrics);
+
+        enforcer.check(new SyntheticPom().withDependencies(20).toBytes());
+
+        assertThat(metrics.phase(Phase.VERIFY).count()).isEqualTo(1);
+        assertThat(metrics.phase(Phase.PARSE).count()).isEqualTo(1);
+        assertThat(metrics.phase(Phase.ANALYZE).count()).isEqualTo(1);
+        // The shuffled dependencies already violate a rule, so the formatting compare is skipped
+        assertThat(metrics.phase(Phase.APPLY).count()).isZero();
+        assertThat(metrics.phase(Phase.COMPARE).count()).isZero();
+        assertThat(metrics.phase(Phase.WRITE).count()).isZero();
+        assertThat(metrics.rules()).containsOnlyKeys("template-order", "dependency-order");
+        assertThat(metrics.rules().get("dependency-order").get(Phase.ANALYZE).nanos())
+                .isPositive();
+    }
+
+    @Test
+    void disabledMetricsShouldRecordNothing() throws Exception {
+        EnforcerMetrics metrics = EnforcerMetrics.disabled();
+
+        newEnforcer(metrics).check(new SyntheticPom().toBytes());
+
+        assertThat(metrics.phase(Phase.PARSE).count()).isZero();
+        assertThat(metrics.rules()).isEmpty();
+    }
+
+    @Test
+    void probeOnVirtualThreadShouldMarkAllocationUnmeasured() throws Exception {
+        Method ofVirtual;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException e) {
+            ofVirtual = null;
+        }
+        assumeTrue(ofVirtual != null, "virtual threads need Java 21+");
+        EnforcerMetrics metrics = EnforcerMetrics.create(5);
+
+        Object builder = ofVirtual.invoke(null);
+        Thread thread = (Thread) Class.forName("java.lang.Thread$Builder")
+                .getMethod("start", Runnable.class)
+                .invoke(builder, (Runnable) () -> metrics.record(Phase.PARSE, metrics.start()));
+        thread.join();
+
+        assertThat(metrics.phase(Phase.PARSE).count()).isEqualTo(1);
+        assertThat(metrics.isAllocationMeasured()).isFalse();
+        assertThat(new MetricsReport(metrics).toLines()).anyMatch(line -> line.contains("n/a"));
+    }
+
+    @Test
+    void shouldKeepOnlySlowestFiles() {
+        EnforcerMetrics metrics = EnforcerMetrics.create(2);
+
+        for (int i = 0; i < 5; i++) {
+            metrics.recordFile("pom-" + i + ".xml", new Probe(System.nanoTime() - i * 1_000_000L, 0));
+        }
+
+        assertThat(metrics.files().count()).isEqualTo(5);
+        assertThat(metrics.slowestFiles())
+                .extracting(EnforcerMetrics.FileTiming::path)
+                .containsExactly("pom-4.xml", "pom-3.xml");
+    }
+
+    @Test
+    void reportShouldWriteJson() throws Exception {
+        EnforcerMetrics metrics = EnforcerMetrics.create(3);
+        PomEnforcer enforcer = newEnforcer(metrics);
+        Path pomFile = tempDir.resolve("pom.xml");
+        byte[] content = new SyntheticPom().toBytes();
+        Files.write(pomFile, content);
+        Probe probe = metrics.start();
+        enforcer.apply(pomFile.toFile(), content);
+        metrics.recordFile("dir\\\"quoted\"/pom.xml", probe);
+
+        MetricsReport report = new MetricsReport(metrics);
+        Path json = tempDir.resolve("target/metrics.json");
+        report.writeJson(json);
+
+        assertThat(report.toLines()).anyMatch(line -> line.startsWith("write"));
+        assertThat(Files.readString(json))
+                .contains("\"write\": {\"count\": 1")
+                .contains("\"template-order\": {\"analyze\"")
+                .contains("\"path\": \"dir\\\\\\\"quoted\\\"/pom.xml\"");
+    }
+
+    private static PomEnforcer newEnforcer(EnforcerMetrics metrics) {
+        RuleRegistry registry = new RuleRegistry(Arrays.asList(new TemplateOrderRule(), new DependencyOrderRule()));
+        return new PomEnforcer(FormattingConfig.defaultConfig(), registry, metrics);
+    }
+}
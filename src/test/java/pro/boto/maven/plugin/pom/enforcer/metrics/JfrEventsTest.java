@@ -0,0 +1,81 @@
+package pro.boto.maven.plugin.pom.enforcer.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import pro.boto.maven.plugin.pom.enforcer.PomEnforcer;
+import pro.boto.maven.plugin.pom.enforcer.SyntheticPom;
+import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
+import pro.boto.maven.plugin.pom.enforcer.rules.DependencyOrderRule;
+import pro.boto.maven.plugin.pom.enforcer.rules.RuleRegistry;
+import pro.boto.maven.plugin.pom.enforcer.rules.TemplateOrderRule;
+
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class JfrEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void applyShouldEmitEventsForEveryStep() throws Exception {
+        File pomFile = tempDir.resolve("pom.xml").toFile();
+        byte[] content = new SyntheticPom().withDependencies(5).toBytes();
+        Files.write(pomFile.toPath(), content);
+        RuleRegistry registry = new RuleRegistry(Arrays.asList(new TemplateOrderRule(), new DependencyOrderRule()));
+        PomEnforcer enforcer = new PomEnforcer(FormattingConfig.defaultConfig(), registry);
+
+        Path dump = tempDir.resolve("enforcer.jfr");
+        try (Recording recording = new Recording()) {
+            for (Class<? extends Event> type :
+                    Arrays.asList(PomParseEvent.class, RuleEvent.class, PomSerializeEvent.class, PomWriteEvent.class)) {
+                recording.enable(type).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            enforcer.apply(pomFile, content);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        RecordedEvent parse = single(events, "pro.boto.pomenforcer.Parse");
+        assertThat(parse.getString("path")).isEqualTo(pomFile.getPath());
+        assertThat(parse.getLong("bytes")).isEqualTo(content.length);
+        assertThat(parse.getInt("elements")).isGreaterThan(20);
+
+        assertThat(events.stream()
+                        .filter(e -> e.getEventType().getName().equals("pro.boto.pomenforcer.Rule"))
+                        .map(e -> e.getString("rule") + ":" + e.getString("phase") + ":" + e.getString("path"))
+                        .collect(Collectors.toList()))
+                .containsExactlyInAnyOrder(
+                        "template-order:analyze:" + pomFile.getPath(),
+                        "dependency-order:analyze:" + pomFile.getPath(),
+                        "template-order:apply:" + pomFile.getPath(),
+                        "dependency-order:apply:" + pomFile.getPath());
+
+        assertThat(single(events, "pro.boto.pomenforcer.Serialize").getString("phase"))
+                .isEqualTo("serialize");
+        assertThat(single(events, "pro.boto.pomenforcer.Write").getLong("bytes"))
+                .isEqualTo(Files.size(pomFile.toPath()));
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+        assertThat(matching).hasSize(1);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,100 @@
+package pro.boto.maven.plugin.pom.enforcer.mojo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import pro.boto.maven.plugin.pom.enforcer.PomEnforcer;
+import pro.boto.maven.plugin.pom.enforcer.metrics.EnforcerMetrics;
+import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.rules.RuleRegistry;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+class CheckMojoTest {
+
+    private static final String UNORDERED = "<project><dependencies/><modelVersion>4.0.0</modelVersion></project>";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void failFastShouldSkipFilesAfterTheFirstViolation() throws Exception {
+        CountingCheckMojo mojo = new CountingCheckMojo();
+        mojo.reactorProjects = reactor(5);
+        mojo.cache = false;
+        mojo.failFast = true;
+        mojo.setLog(new QuietLog());
+
+        assertThatThrownBy(mojo::execute)
+                .isInstanceOf(MojoExecutionException.class)
+                .hasMessageStartingWith("Stopped at the first POM file with violations");
+        assertThat(mojo.checked).hasValue(1);
+    }
+
+    @Test
+    void withoutFailFastEveryFileShouldBeChecked() throws Exception {
+        CountingCheckMojo mojo = new CountingCheckMojo();
+        mojo.reactorProjects = reactor(5);
+        mojo.cache = false;
+        mojo.setLog(new QuietLog());
+
+        assertThatThrownBy(mojo::execute)
+                .isInstanceOf(MojoExecutionException.class)
+                .hasMessageStartingWith("5 POM file(s) have violations");
+        assertThat(mojo.checked).hasValue(5);
+    }
+
+    private List<MavenProject> reactor(int modules) throws Exception {
+        List<MavenProject> reactor = new ArrayList<>(modules);
+        for (int i = 0; i < modules; i++) {
+            Path pomFile =
+                    Files.createDirectories(tempDir.resolve("module" + i)).resolve("pom.xml");
+            Files.write(pomFile, UNORDERED.getBytes(StandardCharsets.UTF_8));
+            MavenProject project = new MavenProject();
+            project.setFile(pomFile.toFile());
+            reactor.add(project);
+        }
+        return reactor;
+    }
+
+    /** Counts the files that actually reach {@link PomEnforcer#check}. */
+    private static final class CountingCheckMojo extends CheckMojo {
+
+        private final AtomicInteger checked = new AtomicInteger();
+
+        @Override
+        protected PomEnforcer buildEnforcer(EnforcerMetrics enforcerMetrics) {
+            RuleRegistry registry = new RuleRegistry(rules.buildRules());
+            return new PomEnforcer(formatting, registry, enforcerMetrics, failFast) {
+                @Override
+                public List<RuleViolation> check(File pomFile, byte[] currentContent, BooleanSupplier stopped)
+                        throws Exception {
+                    checked.incrementAndGet();
+                    return super.check(pomFile, currentContent, stopped);
+                }
+            };
+        }
+    }
+
+    private static final class QuietLog extends SystemStreamLog {
+
+        @Override
+        public void info(CharSequence content) {}
+
+        @Override
+        public void error(CharSequence content) {}
+    }
+}
@@ -0,0 +1,81 @@
+package pro.boto.maven.plugin.pom.enforcer.mojo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+class PomWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void watcherShouldDispatchOnlyChangedWatchedFiles() throws Exception {
+        Path pom = write(tempDir.resolve("pom.xml"), "<project/>");
+        Path other = write(tempDir.resolve("other.xml"), "<other/>");
+        BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+
+        try (PomWatcher watcher = new PomWatcher(List.of(pom.toFile()), (pomFile, content) -> {
+            changes.add(new String(content, StandardCharsets.UTF_8));
+            return null;
+        })) {
+            Thread loop = start(watcher);
+
+            write(other, "<other>changed</other>");
+            write(pom, "<project/>");
+            write(pom, "<project>changed</project>");
+
+            assertThat(changes.poll(10, TimeUnit.SECONDS)).isEqualTo("<project>changed</project>");
+            assertThat(changes.poll(200, TimeUnit.MILLISECONDS)).isNull();
+
+            watcher.close();
+            loop.join(5000);
+            assertThat(loop.isAlive()).isFalse();
+        }
+    }
+
+    @Test
+    void watcherShouldIgnoreContentWrittenByHandler() throws Exception {
+        Path pom = write(tempDir.resolve("pom.xml"), "<project/>");
+        BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+
+        try (PomWatcher watcher = new PomWatcher(List.of(pom.toFile()), (pomFile, content) -> {
+            changes.add(new String(content, StandardCharsets.UTF_8));
+            return Files.readAllBytes(write(pomFile.toPath(), "<project>fixed</project>"));
+        })) {
+            start(watcher);
+
+            write(pom, "<project>edited</project>");
+
+            assertThat(changes.poll(10, TimeUnit.SECONDS)).isEqualTo("<project>edited</project>");
+            assertThat(changes.poll(500, TimeUnit.MILLISECONDS)).isNull();
+            assertThat(Files.readString(pom)).isEqualTo("<project>fixed</project>");
+        }
+    }
+
+    private static Thread start(PomWatcher watcher) {
+        Thread loop = new Thread(() -> {
+            try {
+                watcher.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        loop.setDaemon(true);
+        loop.start();
+        return loop;
+    }
+
+    private static Path write(Path path, String content) throws Exception {
+        return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,108 @@
+package pro.boto.maven.plugin.pom.enforcer.mojo;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import pro.boto.maven.plugin.pom.enforcer.SyntheticReactor;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the goals over a generated reactor and reports wall time, peak heap and throughput.
+ *
+ * <p>Skipped in the regular build; enabled by setting the number of modules, e.g.
+ * {@code mvn test -Dtest=ReactorScaleTest -Dpom-enforcer.scale.modules=2000
+ * -Dpom-enforcer.scale.parallelism=0}.
+ */
+@EnabledIfSystemProperty(named = "pom-enforcer.scale.modules", matches = "\\d+")
+class ReactorScaleTest {
+
+    private static final int MODULES = Integer.getInteger("pom-enforcer.scale.modules", 100);
+    private static final Log REPORT = new SystemStreamLog();
+    private static final int PARALLELISM = Integer.getInteger("pom-enforcer.scale.parallelism", 1);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void goalsShouldScaleOverLargeReactor() throws Exception {
+        List<File> pomFiles = new SyntheticReactor().withModules(MODULES).writeTo(tempDir);
+        List<MavenProject> reactor = toReactor(pomFiles);
+
+        assertThatThrownBy(() -> measure("check (dirty)", pomFiles.size(), configure(new CheckMojo(), reactor)))
+                .isInstanceOf(MojoExecutionException.class)
+                .hasMessageStartingWith(pomFiles.size() + " POM file(s) have violations");
+
+        measure("apply", pomFiles.size(), configure(new ApplyMojo(), reactor));
+
+        measure("check (clean)", pomFiles.size(), configure(new CheckMojo(), reactor));
+    }
+
+    private static void measure(String goal, int files, ReactorMojo mojo) throws Exception {
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            mojo.execute();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            long peakHeap = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+            REPORT.info(String.format(
+                    "[scale] %-14s %5d files  %8.1f ms  %9.1f files/s  peak heap %6.1f MB  parallelism %d",
+                    goal, files, elapsed / 1e6, files / (elapsed / 1e9), peakHeap / (1024.0 * 1024.0), PARALLELISM));
+        }
+    }
+
+    private static List<MavenProject> toReactor(List<File> pomFiles) {
+        List<MavenProject> reactor = new ArrayList<>(pomFiles.size());
+        for (File pomFile : pomFiles) {
+            MavenProject project = new MavenProject();
+            project.setFile(pomFile);
+            reactor.add(project);
+        }
+        return reactor;
+    }
+
+    private static ReactorMojo configure(ReactorMojo mojo, List<MavenProject> reactor) {
+        mojo.reactorProjects = reactor;
+        mojo.parallelism = PARALLELISM;
+        mojo.cache = false;
+        mojo.setLog(new QuietLog());
+        return mojo;
+    }
+
+    /** Per-file violation output would dominate the timings. */
+    private static final class QuietLog extends SystemStreamLog {
+
+        @Override
+        public void info(CharSequence content) {}
+
+        @Override
+        public void warn(CharSequence content) {}
+
+        @Override
+        public void error(CharSequence content) {}
+    }
+}
@@ -50,4 +50,15 @@ class RulesConfigTest {
         assertThat(rules).hasSize(2);
         assertThat(rules).extracting(PomRule::getName).contains("dependency-order");
     }
+
+    @Test
+    void fingerprintShouldChangeWithRuleSettings() {
+        RulesConfig config = new RulesConfig();
+        String defaultFingerprint = config.fingerprint();
+
+        config.getDependencyOrder().setBomFirst(false);
+
+        assertThat(config.fingerprint()).isNotEqualTo(defaultFingerprint);
+        assertThat(new RulesConfig().fingerprint()).isEqualTo(defaultFingerprint);
+    }
 }
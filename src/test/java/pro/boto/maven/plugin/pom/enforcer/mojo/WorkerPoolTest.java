@@ -0,0 +1,42 @@
+package pro.boto.maven.plugin.pom.enforcer.mojo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class WorkerPoolTest {
+
+    @Test
+    void sequentialPoolShouldRunTasksOnlyWhenResultIsRequested() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+
+        try (WorkerPool pool = WorkerPool.create(1)) {
+            Future<Integer> result = pool.submit(runs::incrementAndGet);
+
+            assertThat(runs).hasValue(0);
+            assertThat(result.get()).isEqualTo(1);
+            assertThat(result.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void parallelPoolShouldKeepSubmissionOrder() throws Exception {
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try (WorkerPool pool = WorkerPool.create(4)) {
+            for (int i = 0; i < 50; i++) {
+                int value = i;
+                results.add(pool.submit(() -> value));
+            }
+
+            for (int i = 0; i < 50; i++) {
+                assertThat(results.get(i).get()).isEqualTo(i);
+            }
+        }
+    }
+}
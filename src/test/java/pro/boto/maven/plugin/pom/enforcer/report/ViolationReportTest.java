@@ -0,0 +1,88 @@
+package pro.boto.maven.plugin.pom.enforcer.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.model.ViolationDetail;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class ViolationReportTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final RuleViolation orderViolation = new RuleViolation(
+            "template-order",
+            "Elements are not in the expected order.",
+            Collections.singletonList(new ViolationDetail("project", "modelVersion, \"name\"", "name, modelVersion")));
+    private final RuleViolation formatViolation = new RuleViolation("formatting", "Inconsistent indentation.");
+
+    @Test
+    void jsonLinesShouldWriteOneLinePerViolationWithRelativePath() throws Exception {
+        Path reportFile = tempDir.resolve("target/violations.jsonl");
+        File pomFile = tempDir.resolve("module/pom.xml").toFile();
+
+        try (ViolationReport report =
+                ViolationReport.open(ReportFormat.JSONL, reportFile, tempDir, Collections.emptyList())) {
+            report.write(pomFile, Arrays.asList(orderViolation, formatViolation));
+            report.write(tempDir.resolve("clean/pom.xml").toFile(), Collections.emptyList());
+
+            // Flushed per POM, before the report is closed
+            assertThat(Files.readAllLines(reportFile)).hasSize(2);
+        }
+
+        List<String> lines = Files.readAllLines(reportFile);
+        assertThat(lines)
+                .containsExactly(
+                        "{\"file\":\"module/pom.xml\",\"rule\":\"template-order\","
+                                + "\"message\":\"Elements are not in the expected order.\",\"details\":[{"
+                                + "\"path\":\"project\",\"expected\":\"modelVersion, \\\"name\\\"\","
+                                + "\"actual\":\"name, modelVersion\"}]}",
+                        "{\"file\":\"module/pom.xml\",\"rule\":\"formatting\","
+                                + "\"message\":\"Inconsistent indentation.\",\"details\":[]}");
+    }
+
+    @Test
+    void sarifShouldDeclareRulesAndListResults() throws Exception {
+        Path reportFile = tempDir.resolve("violations.sarif");
+
+        try (ViolationReport report = ViolationReport.open(
+                ReportFormat.SARIF, reportFile, tempDir, Arrays.asList("template-order", "formatting"))) {
+            report.write(tempDir.resolve("a/pom.xml").toFile(), Collections.singletonList(orderViolation));
+            report.write(tempDir.resolve("b/pom.xml").toFile(), Collections.singletonList(formatViolation));
+        }
+
+        String sarif = Files.readString(reportFile);
+        assertThat(sarif)
+                .startsWith("{\n  \"$schema\"")
+                .contains("\"version\": \"2.1.0\"")
+                .contains("\"rules\": [{\"id\": \"template-order\"}, {\"id\": \"formatting\"}]")
+                .contains("{\"ruleId\": \"template-order\", \"level\": \"error\", "
+                        + "\"message\": {\"text\": \"Elements are not in the expected order.\"}")
+                .contains("\"artifactLocation\": {\"uri\": \"a/pom.xml\"}")
+                .contains("\"logicalLocations\": [{\"fullyQualifiedName\": \"project\", \"kind\": \"element\"}]")
+                .contains("\"artifactLocation\": {\"uri\": \"b/pom.xml\"}")
+                .endsWith("}]}\n    ]\n  }]\n}\n");
+        assertThat(sarif.chars().filter(c -> c == '{').count())
+                .isEqualTo(sarif.chars().filter(c -> c == '}').count());
+    }
+
+    @Test
+    void sarifWithoutViolationsShouldHaveEmptyResults() throws Exception {
+        Path reportFile = tempDir.resolve("violations.sarif");
+
+        ViolationReport.open(ReportFormat.SARIF, reportFile, tempDir, Collections.emptyList())
+                .close();
+
+        assertThat(Files.readString(reportFile)).contains("\"rules\": []}},\n    \"results\": [\n    ]");
+    }
+}
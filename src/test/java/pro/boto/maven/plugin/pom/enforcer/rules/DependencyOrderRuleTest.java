@@ -3,6 +3,7 @@ package pro.boto.maven.plugin.pom.enforcer.rules;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
+import pro.boto.maven.plugin.pom.enforcer.model.ViolationDetail;
 import pro.boto.maven.plugin.pom.enforcer.serde.PomSerde;
 
 import org.jdom2.Document;
@@ -11,6 +12,7 @@ import org.jdom2.Namespace;
 import org.junit.jupiter.api.Test;
 
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 class DependencyOrderRuleTest {
@@ -41,6 +43,51 @@ class DependencyOrderRuleTest {
         assertThat(deps).extracting(e -> e.getChildText("artifactId", ns)).containsExactly("hibernate-core", "guava");
     }
 
+    @Test
+    void analyzeShouldListOnlyEntriesToMoveInLargeSections() throws Exception {
+        // One misplaced entry: every other one shifts by a position but only "a" has to move
+        Document doc = dependencies("b", "c", "d", "e", "f", "a", "g");
+
+        ViolationDetail moved = new DependencyOrderRule()
+                .withMaxDetailEntries(3)
+                .analyze(doc)
+                .get(0)
+                .details()
+                .get(0);
+        assertThat(moved.expected()).isEqualTo("#1 g:a");
+        assertThat(moved.actual()).isEqualTo("#6 g:a");
+
+        ViolationDetail full =
+                new DependencyOrderRule().analyze(doc).get(0).details().get(0);
+        assertThat(full.expected()).isEqualTo("g:a, g:b, g:c, g:d, g:e, g:f, g:g");
+        assertThat(full.actual()).isEqualTo("g:b, g:c, g:d, g:e, g:f, g:a, g:g");
+    }
+
+    @Test
+    void analyzeShouldCapListedMoves() throws Exception {
+        Document doc = dependencies("e", "d", "c", "b", "a");
+
+        ViolationDetail capped = new DependencyOrderRule()
+                .withMaxDetailEntries(2)
+                .analyze(doc)
+                .get(0)
+                .details()
+                .get(0);
+        assertThat(capped.expected()).isEqualTo("#5 g:e, #4 g:d, ... 2 more");
+        assertThat(capped.actual()).isEqualTo("#1 g:e, #2 g:d, ... 2 more");
+    }
+
+    private Document dependencies(String... artifactIds) throws Exception {
+        StringBuilder xml = new StringBuilder("<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><dependencies>");
+        for (String artifactId : artifactIds) {
+            xml.append("<dependency><groupId>g</groupId><artifactId>")
+                    .append(artifactId)
+                    .append("</artifactId></dependency>");
+        }
+        return pomSerde.deserialize(
+                new StringReader(xml.append("</dependencies></project>").toString()));
+    }
+
     @Test
     void applyShouldSortByGroupIdAndArtifactId() throws Exception {
         String xml = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
@@ -172,4 +219,69 @@ class DependencyOrderRuleTest {
 
         assertThat(secondPass).isEqualTo(firstPass);
     }
+
+    @Test
+    void analyzeShouldDetectOrderOnFieldsBeyondGroupAndArtifact() throws Exception {
+        String xml = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+                + "  <dependencies>"
+                + "    <dependency><groupId>A</groupId><artifactId>A</artifactId>"
+                + "<scope>test</scope></dependency>"
+                + "    <dependency><groupId>A</groupId><artifactId>A</artifactId>"
+                + "<scope>compile</scope></dependency>"
+                + "  </dependencies>"
+                + "</project>";
+        Document doc = pomSerde.deserialize(new StringReader(xml));
+
+        DependencyOrderRule rule = new DependencyOrderRule();
+
+        assertThat(rule.analyze(doc)).hasSize(1);
+
+        rule.apply(doc);
+
+        List<Element> deps = doc.getRootElement().getChild("dependencies", ns).getChildren();
+        assertThat(deps).extracting(e -> e.getChildText("scope", ns)).containsExactly("compile", "test");
+        assertThat(rule.analyze(doc)).isEmpty();
+    }
+
+    @Test
+    void streamingVerifierShouldAgreeWithAnalyze() throws Exception {
+        String dep = "<dependency><groupId>%s</groupId><artifactId>%s</artifactId>%s</dependency>";
+        String bom = "<type>pom</type><scope>import</scope>";
+        List<String> samples = List.of(
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><dependencies>"
+                        + String.format(dep, "A", "A", "") + String.format(dep, "B", "B", "")
+                        + "</dependencies></project>",
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><dependencies>"
+                        + String.format(dep, "B", "B", "") + "<!-- moved -->" + String.format(dep, "A", "A", "")
+                        + "</dependencies></project>",
+                "<project><dependencyManagement><dependencies>"
+                        + String.format(dep, "Z", "Z", bom) + String.format(dep, "A", "A", bom)
+                        + String.format(dep, "B", "B", "")
+                        + "</dependencies></dependencyManagement></project>",
+                "<project><dependencyManagement><dependencies>"
+                        + String.format(dep, "A", "A", "") + String.format(dep, "Z", "Z", bom)
+                        + "</dependencies></dependencyManagement></project>",
+                "<project><dependencies>"
+                        + String.format(dep, "A", "A", "<scope>test</scope>")
+                        + String.format(dep, "A", "A", "<scope><![CDATA[compile]]></scope>")
+                        + "</dependencies></project>",
+                "<project><dependencies>" + String.format(dep, " A ", "A", "") + String.format(dep, "A", "B", "")
+                        + "</dependencies><dependencies>" + String.format(dep, "Z", "Z", "")
+                        + String.format(dep, "A", "A", "") + "</dependencies>"
+                        + "<profiles><profile><dependencies>" + String.format(dep, "Z", "Z", "")
+                        + String.format(dep, "A", "A", "") + "</dependencies></profile></profiles></project>",
+                "<project><dependencies><dependency><groupId>B<x>0</x></groupId></dependency>"
+                        + "<dependency><groupId>A<x>9</x></groupId></dependency></dependencies></project>");
+
+        DependencyOrderRule rule = new DependencyOrderRule();
+        for (String xml : samples) {
+            byte[] content = xml.getBytes(StandardCharsets.UTF_8);
+            StreamingVerifier verifier = rule.newStreamingVerifier();
+
+            assertThat(pomSerde.stream(content, verifier)).isTrue();
+            assertThat(verifier.hasViolation())
+                    .as(xml)
+                    .isEqualTo(!rule.analyze(pomSerde.deserialize(content)).isEmpty());
+        }
+    }
 }
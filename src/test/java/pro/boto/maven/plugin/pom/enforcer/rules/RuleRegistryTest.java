@@ -2,6 +2,7 @@ package pro.boto.maven.plugin.pom.enforcer.rules;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import pro.boto.maven.plugin.pom.enforcer.metrics.EnforcerMetrics;
 import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
 import pro.boto.maven.plugin.pom.enforcer.serde.PomSerde;
 
@@ -49,6 +50,30 @@ class RuleRegistryTest {
         assertThat(violations).extracting(RuleViolation::ruleName).contains("template-order", "dependency-order");
     }
 
+    @Test
+    void analyzeFirstShouldStopAtFirstViolatingRule() throws Exception {
+        String xml = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+                + "  <dependencies>"
+                + "    <dependency><groupId>Z</groupId>"
+                + "<artifactId>Z</artifactId></dependency>"
+                + "    <dependency><groupId>A</groupId>"
+                + "<artifactId>A</artifactId></dependency>"
+                + "  </dependencies>"
+                + "  <modelVersion>4.0.0</modelVersion>"
+                + "</project>";
+        Document doc = pomSerde.deserialize(new StringReader(xml));
+
+        RuleRegistry registry = new RuleRegistry(Arrays.asList(new TemplateOrderRule(), new DependencyOrderRule()));
+
+        assertThat(registry.analyzeFirst(doc, EnforcerMetrics.disabled()))
+                .extracting(RuleViolation::ruleName)
+                .containsOnly("template-order");
+
+        registry.applyAll(doc);
+
+        assertThat(registry.analyzeFirst(doc, EnforcerMetrics.disabled())).isEmpty();
+    }
+
     @Test
     void applyAllThenAnalyzeAllShouldReturnEmpty() throws Exception {
         String xml = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
@@ -68,4 +93,59 @@ class RuleRegistryTest {
 
         assertThat(registry.analyzeAll(doc)).isEmpty();
     }
+
+    @Test
+    void analyzeAllShouldWalkVisitingRulesOnceAndKeepLegacyRules() throws Exception {
+        String xml = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+                + "  <dependencies>"
+                + "    <dependency><groupId>Z</groupId>"
+                + "<artifactId>Z</artifactId></dependency>"
+                + "    <dependency><groupId>A</groupId>"
+                + "<artifactId>A</artifactId></dependency>"
+                + "  </dependencies>"
+                + "  <modelVersion>4.0.0</modelVersion>"
+                + "</project>";
+        Document doc = pomSerde.deserialize(new StringReader(xml));
+
+        PomRule legacyRule = new PomRule() {
+            @Override
+            public String getName() {
+                return "legacy";
+            }
+
+            @Override
+            public int getPriority() {
+                return 150;
+            }
+
+            @Override
+            public List<RuleViolation> analyze(Document document) {
+                return List.of(new RuleViolation(getName(), "Always fails."));
+            }
+
+            @Override
+            public void apply(Document document) {}
+        };
+
+        RuleRegistry registry =
+                new RuleRegistry(Arrays.asList(new DependencyOrderRule(), legacyRule, new TemplateOrderRule()));
+
+        assertThat(registry.analyzeAll(doc))
+                .extracting(RuleViolation::ruleName)
+                .containsExactly("template-order", "legacy", "dependency-order");
+    }
+
+    @Test
+    void analyzeAllShouldRunRulesConcurrentlyOnLargeDocuments() throws Exception {
+        Document doc = TemplateOrderRuleTest.wideDocument();
+        List<PomRule> rules = Arrays.asList(new TemplateOrderRule(), new DependencyOrderRule());
+
+        List<RuleViolation> sequential = new RuleRegistry(rules, Integer.MAX_VALUE).analyzeAll(doc);
+        List<RuleViolation> concurrent = new RuleRegistry(rules, 1_000).analyzeAll(doc);
+
+        assertThat(sequential)
+                .extracting(RuleViolation::ruleName)
+                .containsExactly("template-order", "dependency-order", "dependency-order");
+        assertThat(concurrent.toString()).isEqualTo(sequential.toString());
+    }
 }
@@ -2,6 +2,7 @@ package pro.boto.maven.plugin.pom.enforcer.rules;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import pro.boto.maven.plugin.pom.enforcer.SyntheticPom;
 import pro.boto.maven.plugin.pom.enforcer.model.RuleViolation;
 import pro.boto.maven.plugin.pom.enforcer.serde.PomSerde;
 
@@ -10,6 +11,9 @@ import org.jdom2.Element;
 import org.junit.jupiter.api.Test;
 
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 class TemplateOrderRuleTest {
@@ -99,4 +103,93 @@ class TemplateOrderRuleTest {
 
         assertThat(secondPass).isEqualTo(firstPass);
     }
+
+    @Test
+    void applyShouldLeaveCompliantElementsUntouched() throws Exception {
+        String content = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+                + "  <modelVersion>4.0.0</modelVersion>"
+                + "  <!-- coordinates -->"
+                + "  <groupId>G</groupId>"
+                + "  <unknownB/>"
+                + "  <unknownA/>"
+                + "</project>";
+
+        Document doc = pomSerde.deserialize(new StringReader(content));
+        Element parent = doc.getRootElement();
+        TemplateOrderRule rule = new TemplateOrderRule();
+
+        assertThat(rule.analyze(doc)).hasSize(1);
+        assertThat(rule.analyze(doc).get(0).details().get(0).expected())
+                .isEqualTo("modelVersion, groupId, unknownA, unknownB");
+
+        parent.removeChild("unknownB", parent.getNamespace());
+        int contentSize = parent.getContentSize();
+        rule.apply(doc);
+
+        assertThat(rule.analyze(doc)).isEmpty();
+        assertThat(parent.getContentSize()).isEqualTo(contentSize);
+    }
+
+    @Test
+    void streamingVerifierShouldAgreeWithAnalyze() throws Exception {
+        List<String> samples = List.of(
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><modelVersion>4.0.0</modelVersion>"
+                        + "<parent><groupId>P</groupId><artifactId>P</artifactId></parent></project>",
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><modelVersion>4.0.0</modelVersion>"
+                        + "<parent><artifactId>P</artifactId><groupId>P</groupId></parent></project>",
+                "<project><dependencies/><modelVersion>4.0.0</modelVersion></project>",
+                "<project><modelVersion>4.0.0</modelVersion><zzz/><aaa/></project>",
+                "<project><modelVersion>4.0.0</modelVersion><aaa/><zzz><b/><a/></zzz></project>",
+                "<project><build><plugins><plugin><configuration><z/><a/></configuration>"
+                        + "<artifactId>x</artifactId><groupId>g</groupId></plugin></plugins></build></project>");
+
+        TemplateOrderRule rule = new TemplateOrderRule();
+        for (String xml : samples) {
+            byte[] content = xml.getBytes(StandardCharsets.UTF_8);
+            StreamingVerifier verifier = rule.newStreamingVerifier();
+
+            assertThat(pomSerde.stream(content, verifier)).isTrue();
+            assertThat(verifier.hasViolation())
+                    .as(xml)
+                    .isEqualTo(!rule.analyze(pomSerde.deserialize(content)).isEmpty());
+        }
+    }
+
+    @Test
+    void forkJoinShouldMatchSequentialAnalyzeAndApply() throws Exception {
+        TemplateOrderRule sequential = new TemplateOrderRule().withParallelThreshold(Integer.MAX_VALUE);
+        TemplateOrderRule parallel = new TemplateOrderRule().withParallelThreshold(64);
+        Document expected = wideDocument();
+        Document actual = expected.clone();
+
+        List<RuleViolation> violations = sequential.analyze(expected);
+        assertThat(violations).hasSize(1);
+        assertThat(violations.get(0).details()).hasSizeGreaterThan(400);
+        assertThat(parallel.analyze(actual).toString()).isEqualTo(violations.toString());
+
+        sequential.apply(expected);
+        parallel.apply(actual);
+
+        assertThat(pomSerde.serialize(actual)).isEqualTo(pomSerde.serialize(expected));
+        assertThat(parallel.analyze(actual)).isEmpty();
+    }
+
+    /**
+     * Three thousand dependencies, one in seven with its children reversed.
+     */
+    static Document wideDocument() throws Exception {
+        Document document = PomSerde.defaultConfig()
+                .deserialize(
+                        new SyntheticPom().withDependencies(3000).withSeed(7).toBytes());
+        Element root = document.getRootElement();
+        List<Element> dependencies =
+                root.getChild("dependencies", root.getNamespace()).getChildren();
+        for (int i = 0; i < dependencies.size(); i += 7) {
+            Element dependency = dependencies.get(i);
+            List<Element> children = new ArrayList<>(dependency.getChildren());
+            Collections.reverse(children);
+            dependency.setContent(children);
+        }
+        return document;
+    }
 }
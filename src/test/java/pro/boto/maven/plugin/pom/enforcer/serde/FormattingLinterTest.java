@@ -0,0 +1,128 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import pro.boto.maven.plugin.pom.enforcer.SyntheticPom;
+import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
+import pro.boto.maven.plugin.pom.enforcer.format.SchemaLocationPolicy;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * Differential test: the linter must never disagree with comparing against a full serialization.
+ */
+class FormattingLinterTest {
+
+    private static final int SAMPLES = 600;
+
+    @Test
+    void lintShouldAgreeWithCompareOnMutatedPoms() throws Exception {
+        Random random = new Random(20261018);
+        int reported = 0;
+        int proven = 0;
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            FormattingConfig config = FormattingConfig.defaultConfig();
+            config.setIndentSize(random.nextBoolean() ? 4 : 2);
+            config.setLineSeparator(random.nextInt(4) == 0 ? "\r\n" : "\n");
+            config.setSchemaLocation(SchemaLocationPolicy.values()[random.nextInt(3)]);
+            config.setKeepBlankLines(random.nextBoolean());
+            PomSerde pomSerde = new PomSerde(config);
+
+            byte[] synthetic = new SyntheticPom()
+                    .withDependencies(1 + random.nextInt(5))
+                    .withBoms(random.nextInt(2))
+                    .withPluginDepth(random.nextInt(3))
+                    .withSeed(random.nextLong())
+                    .toBytes();
+            String content = new String(pomSerde.serialize(pomSerde.deserialize(synthetic)), StandardCharsets.UTF_8);
+            List<String> applied = new ArrayList<>();
+            for (int i = random.nextInt(3); i > 0; i--) {
+                Mutation mutation = Mutation.values()[random.nextInt(Mutation.values().length)];
+                applied.add(mutation.name());
+                content = mutation.apply(content, new Context(random, config.lineSeparator()));
+            }
+
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            FormattingLint lint = pomSerde.lint(bytes);
+            FormattingMismatch mismatch = pomSerde.compare(pomSerde.deserialize(bytes), bytes);
+            String description = applied + " with " + config.fingerprint() + ":\n" + content;
+            if (lint.hasIssues()) {
+                reported++;
+                assertThat(mismatch)
+                        .as("reported %s for %s", lint.issues(), description)
+                        .isNotNull();
+            } else if (lint.isConclusive()) {
+                proven++;
+                assertThat(mismatch).as("found no issue in %s", description).isNull();
+            }
+        }
+        // Both verdicts are exercised, not only the fallback
+        assertThat(reported).isGreaterThan(SAMPLES / 4);
+        assertThat(proven).isGreaterThan(SAMPLES / 4);
+    }
+
+    private static final class Context {
+
+        private final Random random;
+        private final String separator;
+
+        Context(Random random, String separator) {
+            this.random = random;
+            this.separator = separator;
+        }
+
+        /**
+         * Rewrites one random line between the root start and end tags.
+         */
+        String line(String content, BiFunction<String, String, String> rewrite) {
+            List<String> lines = new ArrayList<>(Arrays.asList(content.split(separator, -1)));
+            if (lines.size() < 5) {
+                return content;
+            }
+            int index = 2 + random.nextInt(lines.size() - 4);
+            lines.set(index, rewrite.apply(lines.get(index), separator));
+            return String.join(separator, lines);
+        }
+    }
+
+    private enum Mutation {
+        INDENT_MORE((content, context) -> context.line(content, (line, separator) -> " " + line)),
+        INDENT_TAB((content, context) -> context.line(content, (line, separator) -> line.replaceFirst("^ +", "\t"))),
+        TRAILING_SPACE((content, context) -> context.line(content, (line, separator) -> line + " ")),
+        BLANK_LINE((content, context) -> context.line(content, (line, separator) -> separator + line)),
+        JOIN_LINES((content, context) -> context.line(content, (line, separator) -> line + "<!-- same line -->")),
+        COMMENT((content, context) -> context.line(
+                content,
+                (line, separator) -> line.replaceFirst("^( *)(<[^/].*)$", "$1<!-- a\nb -->" + separator + "$1$2"))),
+        SWAP_SEPARATORS((content, context) ->
+                content.replace("\r\n", "\u0000").replace("\n", "\r\n").replace("\u0000", "\n")),
+        NO_FINAL_SEPARATOR((content, context) -> content.replaceFirst("\r?\n$", "")),
+        NO_DECLARATION((content, context) -> content.substring(content.indexOf('\n') + 1)),
+        EMPTY_ELEMENT((content, context) -> content.replaceFirst("<version>[^<]*</version>", "<version/>")),
+        EXPANDED_ELEMENT((content, context) -> content.replaceFirst("<version>[^<]*</version>", "<version></version>")),
+        SPACE_IN_TAG((content, context) -> content.replaceFirst("</version>", "</version >")),
+        PADDED_TEXT((content, context) -> content.replaceFirst("<version>([^<]*)</", "<version> $1</")),
+        MULTILINE_TEXT((content, context) -> content.replaceFirst("<version>([^<]*)</", "<version>$1\nnext</")),
+        ENTITY((content, context) -> content.replaceFirst("<version>", "<version>&quot;&amp;")),
+        CDATA((content, context) -> content.replaceFirst("<version>([^<]*)</", "<version><![CDATA[$1]]></")),
+        ROOT_INLINE((content, context) -> content.replaceAll("\r?\n {9}", " ")),
+        ATTRIBUTE((content, context) -> content.replaceFirst("<version>", "<version  combine=\"a&quot;b\">"));
+
+        private final BiFunction<String, Context, String> mutation;
+
+        Mutation(BiFunction<String, Context, String> mutation) {
+            this.mutation = mutation;
+        }
+
+        String apply(String content, Context context) {
+            return mutation.apply(content, context);
+        }
+    }
+}
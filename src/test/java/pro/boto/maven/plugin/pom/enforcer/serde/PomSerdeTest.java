@@ -2,13 +2,22 @@ package pro.boto.maven.plugin.pom.enforcer.serde;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import pro.boto.maven.plugin.pom.enforcer.SyntheticPom;
 import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
 import pro.boto.maven.plugin.pom.enforcer.format.SchemaLocationPolicy;
 
 import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.output.XMLOutputter;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 class PomSerdeTest {
 
@@ -55,4 +64,232 @@ class PomSerdeTest {
                         + "    <modelVersion>4.0.0</modelVersion>\n"
                         + "</project>\n");
     }
+
+    @Test
+    void compareShouldReturnNullWhenOutputMatches() throws Exception {
+        PomSerde pomSerde = PomSerde.defaultConfig();
+        Document doc = pomSerde.deserialize(new StringReader("<project><modelVersion>4.0.0</modelVersion></project>"));
+        byte[] formatted = pomSerde.serialize(doc);
+
+        assertThat(pomSerde.compare(doc, formatted)).isNull();
+    }
+
+    @Test
+    void compareShouldReportFirstDivergence() throws Exception {
+        PomSerde pomSerde = PomSerde.defaultConfig();
+        String original = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<project>\n"
+                + "  <modelVersion>4.0.0</modelVersion>\n"
+                + "</project>\n";
+        Document doc = pomSerde.deserialize(original.getBytes(StandardCharsets.UTF_8));
+
+        FormattingMismatch mismatch = pomSerde.compare(doc, original.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(mismatch).isNotNull();
+        assertThat(mismatch.line()).isEqualTo(3);
+        assertThat(mismatch.offset()).isEqualTo(original.indexOf("  <modelVersion>") + 2);
+    }
+
+    @Test
+    void compareShouldReportTruncatedOriginal() throws Exception {
+        PomSerde pomSerde = PomSerde.defaultConfig();
+        Document doc = pomSerde.deserialize(new StringReader("<project/>"));
+        byte[] formatted = pomSerde.serialize(doc);
+        byte[] truncated = Arrays.copyOf(formatted, formatted.length - 1);
+
+        FormattingMismatch mismatch = pomSerde.compare(doc, truncated);
+
+        assertThat(mismatch).isNotNull();
+        assertThat(mismatch.offset()).isEqualTo(truncated.length);
+    }
+
+    @Test
+    void lintShouldAcceptSerializedOutput() throws Exception {
+        PomSerde pomSerde =
+                new PomSerde(new FormattingConfig("UTF-8", 2, false, "\r\n", SchemaLocationPolicy.INDENTED));
+        String xml = "<!-- header -->"
+                + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\" foo=\"a&amp;b\">"
+                + "<modelVersion>4.0.0</modelVersion><dependencies>  </dependencies><!-- end --></project>";
+        byte[] formatted = pomSerde.serialize(pomSerde.deserialize(xml.getBytes(StandardCharsets.UTF_8)));
+
+        FormattingLint lint = pomSerde.lint(formatted);
+
+        assertThat(lint.issues()).isEmpty();
+        assertThat(lint.isConclusive()).isTrue();
+    }
+
+    @Test
+    void lintShouldReportEachDifferingLine() {
+        String original = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\" foo=\"1\">\n"
+                + "  <modelVersion>4.0.0</modelVersion>\n"
+                + "    <name> app</name> \n"
+                + "\n"
+                + "\t<dependencies></dependencies>\r\n"
+                + "    <build/></project>";
+
+        FormattingLint lint = PomSerde.defaultConfig().lint(original.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(lint.issues())
+                .extracting(FormattingIssue::toString)
+                .containsExactly(
+                        "line 2: attribute foo should start on its own line",
+                        "line 3: <modelVersion> is indented by 2 spaces instead of 4",
+                        "line 4: whitespace before the text of <name>",
+                        "line 5: blank line",
+                        "line 6: <dependencies> is indented with tabs instead of 4 spaces",
+                        "line 7: </project> should start on its own line");
+    }
+
+    @Test
+    void lintShouldLeaveUnmodeledConstructsToCompare() {
+        PomSerde pomSerde = PomSerde.defaultConfig();
+        String original = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<project>\n"
+                + "    <name>&quot;app&quot;</name>\n"
+                + "</project>\n";
+
+        FormattingLint lint = pomSerde.lint(original.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(lint.hasIssues()).isFalse();
+        assertThat(lint.isConclusive()).isFalse();
+        assertThat(pomSerde.lint("<project><![CDATA[ x ]]></project>".getBytes(StandardCharsets.UTF_8))
+                        .issues())
+                .isEmpty();
+    }
+
+    @Test
+    void deserializeShouldNotLoadExternalDtdOrEntities() throws Exception {
+        String xml = "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE project SYSTEM \"http://unreachable.invalid/project.dtd\" ["
+                + "<!ENTITY ext SYSTEM \"file:///etc/hostname\">]>\n"
+                + "<project><name>&ext;</name></project>";
+
+        Document doc = PomSerde.defaultConfig().deserialize(xml.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(doc.getRootElement().getChildText("name")).isEmpty();
+    }
+
+    @Test
+    void deserializeShouldReuseParserAcrossDocuments() throws Exception {
+        PomSerde pomSerde = PomSerde.defaultConfig();
+
+        Document first = pomSerde.deserialize(new StringReader("<project><a/></project>"));
+        Document second = pomSerde.deserialize(new StringReader("<project><b/></project>"));
+
+        assertThat(first.getRootElement().getChild("a")).isNotNull();
+        assertThat(second.getRootElement().getChild("b")).isNotNull();
+    }
+
+    @Test
+    void serializeShouldCollapseWhitespaceOnlyElements() throws Exception {
+        PomSerde pomSerde = PomSerde.defaultConfig();
+        Document doc = pomSerde.deserialize(new StringReader("<project><dependencies>\n  </dependencies></project>"));
+        byte[] formatted = pomSerde.serialize(doc);
+
+        assertThat(new String(formatted, StandardCharsets.UTF_8)).contains("<dependencies/>");
+        assertThat(pomSerde.serialize(pomSerde.deserialize(formatted))).isEqualTo(formatted);
+    }
+
+    @Test
+    void serializeShouldReuseThreadBufferAcrossDocumentSizes() throws Exception {
+        FormattingConfig config = FormattingConfig.defaultConfig();
+        PomSerde pomSerde = new PomSerde(config);
+        Document large = pomSerde.deserialize(
+                new SyntheticPom().withDependencies(3000).withSeed(7).toBytes());
+        Document small = pomSerde.deserialize(
+                new SyntheticPom().withDependencies(2).withSeed(7).toBytes());
+
+        // Undersized hint grows the buffer, oversized hint leaves stale bytes past the new length
+        assertThat(pomSerde.serialize(large, 0).toByteArray()).isEqualTo(outputterBytes(config, large));
+        SerializedPom serialized = pomSerde.serialize(small, 1 << 20);
+
+        byte[] expected = outputterBytes(config, small);
+        assertThat(serialized.length()).isEqualTo(expected.length);
+        assertThat(serialized.contentEquals(expected)).isTrue();
+        assertThat(serialized.toByteArray()).isEqualTo(expected);
+    }
+
+    @Test
+    void serializeShouldKeepSurrogatePairsSplitAcrossEncodeChunks() throws Exception {
+        // Comments are written unescaped; an odd prefix makes some pair straddle a chunk boundary
+        String text = "\ud83d\ude00".repeat(20_000);
+        for (String encoding : List.of("UTF-8", "UTF-16", "US-ASCII")) {
+            for (String prefix : List.of("", "a")) {
+                FormattingConfig config = new FormattingConfig(encoding, 2, false, "\n", SchemaLocationPolicy.INDENTED);
+                PomSerde pomSerde = new PomSerde(config);
+                Document doc = pomSerde.deserialize(
+                        new StringReader("<project><!--" + prefix + text + "--><name/></project>"));
+
+                assertThat(pomSerde.serialize(doc)).isEqualTo(outputterBytes(config, doc));
+            }
+        }
+    }
+
+    @Test
+    void serializeShouldEncodeWithConfiguredCharset() throws Exception {
+        FormattingConfig config = new FormattingConfig("ISO-8859-1", 2, false, "\r\n", SchemaLocationPolicy.INDENTED);
+        PomSerde pomSerde = new PomSerde(config);
+        Document doc = pomSerde.deserialize(new StringReader(
+                "<project><name>Caf\u00e9 \u20ac \ud83d\ude00</name><!-- \u00e9t\u00e9 --></project>"));
+
+        assertThat(pomSerde.serialize(doc)).isEqualTo(outputterBytes(config, doc));
+    }
+
+    @Test
+    void patchShouldOnlyMoveReorderedElements() throws Exception {
+        PomSerde pomSerde = PomSerde.defaultConfig();
+        String original = "<?xml version=\"1.0\"?>\n"
+                + "<project>\n"
+                + "  <!-- build -->\n"
+                + "  <build><finalName>app</finalName></build>\n"
+                + "\t<modelVersion>4.0.0</modelVersion>   <!-- model -->\n"
+                + "</project>\n";
+        byte[] content = original.getBytes(StandardCharsets.UTF_8);
+        Document doc = pomSerde.deserialize(content);
+        ElementIndex index = pomSerde.index(doc);
+        reverseChildren(doc.getRootElement());
+
+        byte[] patched = pomSerde.patch(content, doc, index);
+
+        assertThat(new String(patched, StandardCharsets.UTF_8))
+                .isEqualTo("<?xml version=\"1.0\"?>\n"
+                        + "<project>\n"
+                        + "\t<modelVersion>4.0.0</modelVersion>   <!-- model -->\n"
+                        + "  <!-- build -->\n"
+                        + "  <build><finalName>app</finalName></build>\n"
+                        + "</project>\n");
+    }
+
+    @Test
+    void patchShouldReturnOriginalBytesWhenNothingMoved() throws Exception {
+        PomSerde pomSerde = PomSerde.defaultConfig();
+        byte[] content = "<project a='>'>\n<![CDATA[<x>]]><b/>  <c>1</c></project>".getBytes(StandardCharsets.UTF_8);
+        Document doc = pomSerde.deserialize(content);
+
+        assertThat(pomSerde.patch(content, doc, pomSerde.index(doc))).isEqualTo(content);
+    }
+
+    @Test
+    void patchShouldGiveUpWhenMovedElementIsSurroundedByText() throws Exception {
+        PomSerde pomSerde = PomSerde.defaultConfig();
+        byte[] content = "<project><a/>text<b/></project>".getBytes(StandardCharsets.UTF_8);
+        Document doc = pomSerde.deserialize(content);
+        ElementIndex index = pomSerde.index(doc);
+        reverseChildren(doc.getRootElement());
+
+        assertThat(pomSerde.patch(content, doc, index)).isNull();
+    }
+
+    private static void reverseChildren(Element parent) {
+        List<Element> children = new ArrayList<>(parent.getChildren());
+        Collections.reverse(children);
+        parent.setContent(children);
+    }
+
+    private static byte[] outputterBytes(FormattingConfig config, Document document) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new XMLOutputter(config.buildFormat(), config.buildOutputProcessor()).output(document, output);
+        return output.toByteArray();
+    }
 }
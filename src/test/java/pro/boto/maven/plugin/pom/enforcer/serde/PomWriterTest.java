@@ -0,0 +1,198 @@
+package pro.boto.maven.plugin.pom.enforcer.serde;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import pro.boto.maven.plugin.pom.enforcer.SyntheticPom;
+import pro.boto.maven.plugin.pom.enforcer.format.FormattingConfig;
+import pro.boto.maven.plugin.pom.enforcer.format.SchemaLocationPolicy;
+
+import org.jdom2.Attribute;
+import org.jdom2.CDATA;
+import org.jdom2.Comment;
+import org.jdom2.Content;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.EntityRef;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+import org.jdom2.output.XMLOutputter;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Random;
+
+/**
+ * Differential test: whenever the writer handles a document, its output must match the JDOM
+ * outputter driven by {@link PomOutputProcessor} character for character.
+ */
+class PomWriterTest {
+
+    private static final int SAMPLES = 2000;
+    private static final String[] ENCODINGS = {"UTF-8", "UTF-16", "ISO-8859-1", "US-ASCII", "windows-1252"};
+    private static final String[] SEPARATORS = {"\n", "\r\n", "\r"};
+    private static final String[] TEXT = {
+        "a", "b", "1.0", " ", "  ", "\t", "\n", "\r\n", "<", ">", "&", "\"", "'", "é", "ÿ", "€", "😀", "]]"
+    };
+    private static final Namespace POM = Namespace.getNamespace("http://maven.apache.org/POM/4.0.0");
+    private static final Namespace XSI = Namespace.getNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+    private static final Namespace[] NAMESPACES = {
+        POM, XSI, Namespace.NO_NAMESPACE, Namespace.getNamespace("a", "urn:a&\"b"), Namespace.getNamespace("urn:other")
+    };
+    // Declared before the namespaces above, so JDOM has to sort the declarations by prefix
+    private static final Namespace LAST = Namespace.getNamespace("z", "urn:z");
+
+    @Test
+    void writerShouldMatchOutputProcessorOnGeneratedDocuments() throws Exception {
+        Random random = new Random(20261018);
+        int written = 0;
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            FormattingConfig config = randomConfig(random);
+            Document document = random.nextInt(4) == 0
+                    ? new PomSerde(config)
+                            .deserialize(new SyntheticPom()
+                                    .withDependencies(random.nextInt(6))
+                                    .withPluginDepth(random.nextInt(3))
+                                    .withSeed(random.nextLong())
+                                    .toBytes())
+                    : randomDocument(random);
+            if (assertSameOutput(config, document)) {
+                written++;
+            }
+        }
+        // Fallbacks are the exception, not the rule
+        assertThat(written).isGreaterThan(SAMPLES * 3 / 4);
+    }
+
+    @Test
+    void writerShouldLeaveMixedContentAndEntityReferencesToOutputProcessor() throws Exception {
+        FormattingConfig config = FormattingConfig.defaultConfig();
+        Element mixed = new Element("project").addContent("text").addContent(new Element("a"));
+        Element entity = new Element("project").addContent(new EntityRef("version"));
+
+        assertThat(assertSameOutput(config, new Document(mixed))).isFalse();
+        assertThat(assertSameOutput(config, new Document(entity))).isFalse();
+    }
+
+    /**
+     * @return whether the writer handled the document rather than deferring to the outputter
+     */
+    private static boolean assertSameOutput(FormattingConfig config, Document document) throws Exception {
+        PomOutputProcessor processor = config.buildOutputProcessor();
+        XMLOutputter outputter = new XMLOutputter(config.buildFormat(), processor);
+        StringWriter expected = new StringWriter();
+        outputter.output(document, expected);
+
+        StringWriter actual = new StringWriter();
+        boolean written =
+                new PomWriter(outputter.getFormat(), processor.indentsSchemaLocation()).write(document, actual);
+        if (written) {
+            assertThat(actual.toString())
+                    .as("%s for %s", config.fingerprint(), expected)
+                    .isEqualTo(expected.toString());
+        }
+        return written;
+    }
+
+    private static FormattingConfig randomConfig(Random random) {
+        FormattingConfig config = FormattingConfig.defaultConfig();
+        config.setEncoding(ENCODINGS[random.nextInt(ENCODINGS.length)]);
+        config.setIndentSize(random.nextInt(5));
+        config.setLineSeparator(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+        config.setSchemaLocation(SchemaLocationPolicy.values()[random.nextInt(3)]);
+        return config;
+    }
+
+    // ---- GENERATION ----
+
+    private static Document randomDocument(Random random) {
+        Element root = new Element(random.nextInt(5) == 0 ? "root" : "project", POM);
+        if (random.nextInt(4) == 0) {
+            root.addNamespaceDeclaration(LAST);
+        }
+        if (random.nextBoolean()) {
+            root.addNamespaceDeclaration(XSI);
+            root.setAttribute("schemaLocation", "http://maven.apache.org/POM/4.0.0 " + text(random), XSI);
+        }
+        if (random.nextInt(3) == 0) {
+            root.setAttribute("child.project.url.inherit.append.path", text(random));
+        }
+        Attribute defaulted = new Attribute("defaulted", text(random));
+        defaulted.setSpecified(random.nextInt(4) != 0);
+        root.setAttribute(defaulted);
+        populate(random, root, 0);
+
+        Document document = new Document();
+        if (random.nextInt(4) == 0) {
+            document.setDocType(new DocType("project", random.nextBoolean() ? "-//pub" : null, "pom.dtd"));
+        }
+        if (random.nextBoolean()) {
+            document.addContent(new Comment(" " + comment(random) + " "));
+        }
+        document.addContent(root);
+        if (random.nextInt(3) == 0) {
+            document.addContent(new ProcessingInstruction("trailer", random.nextBoolean() ? "" : "x=1"));
+        }
+        return document;
+    }
+
+    private static void populate(Random random, Element parent, int depth) {
+        int children = depth > 3 ? 0 : random.nextInt(5);
+        if (children == 0 || random.nextInt(4) == 0) {
+            // Text-only content, possibly split over several nodes
+            for (int i = random.nextInt(4); i > 0; i--) {
+                parent.addContent(
+                        random.nextInt(6) == 0 ? new CDATA(text(random).replace(">", "")) : new Text(text(random)));
+            }
+            return;
+        }
+        for (int i = 0; i < children; i++) {
+            if (random.nextBoolean()) {
+                parent.addContent(new Text(random.nextBoolean() ? "\n    " : " "));
+            }
+            parent.addContent(child(random, depth));
+        }
+        if (random.nextInt(10) == 0) {
+            parent.addContent(new Text("mixed"));
+        }
+    }
+
+    private static Content child(Random random, int depth) {
+        switch (random.nextInt(8)) {
+            case 0:
+                return new Comment(comment(random));
+            case 1:
+                return new ProcessingInstruction("pi", random.nextBoolean() ? "" : comment(random));
+            default:
+                Namespace namespace = random.nextInt(8) == 0 ? NAMESPACES[random.nextInt(NAMESPACES.length)] : POM;
+                Element element = new Element(random.nextInt(20) == 0 ? "project" : "e" + depth, namespace);
+                if (random.nextInt(6) == 0) {
+                    element.setAttribute("combine.children", text(random));
+                }
+                if (random.nextInt(10) == 0) {
+                    Namespace other = NAMESPACES[random.nextInt(NAMESPACES.length)];
+                    if (!other.getPrefix().isEmpty()) {
+                        element.setAttribute("attr", text(random), other);
+                    }
+                }
+                if (random.nextInt(10) == 0) {
+                    element.addNamespaceDeclaration(random.nextBoolean() ? LAST : NAMESPACES[3]);
+                }
+                populate(random, element, depth + 1);
+                return element;
+        }
+    }
+
+    private static String text(Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int i = random.nextInt(6); i > 0; i--) {
+            text.append(TEXT[random.nextInt(TEXT.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String comment(Random random) {
+        return text(random).replace("-", "");
+    }
+}